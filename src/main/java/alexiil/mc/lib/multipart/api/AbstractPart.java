@@ -103,6 +103,22 @@ public abstract class AbstractPart {
             .setReceiver(AbstractPart::spawnFallParticles);
     }
 
+    private static final ClassValue<Boolean> HAS_STATIC_DYNAMIC_SHAPE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (SubdividedPart.class.isAssignableFrom(type)) {
+                return false;
+            }
+            try {
+                return type.getMethod("getDynamicShape", float.class).getDeclaringClass() == AbstractPart.class
+                    && type.getMethod("getDynamicShape", float.class, Vec3d.class).getDeclaringClass()
+                        == AbstractPart.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     public final PartDefinition definition;
     public final MultipartHolder holder;
     public final MultipartContainer container;
@@ -163,11 +179,11 @@ public abstract class AbstractPart {
         container.redrawIfChanged();
     }
 
-    /** Clears this part's block's shape caches.
+    /** Updates this part's block's shape caches after this part's shape has changed.
      * <p>
-     * This is a convenience method for invoking {@link MultipartContainer#recalculateShape()}. */
+     * This is a convenience method for invoking {@link MultipartContainer#recalculateShape(AbstractPart)}. */
     public final void recalculateShape() {
-        container.recalculateShape();
+        container.recalculateShape(this);
     }
 
     /** Should be called on the server to ensure this part's block's shape caches are cleared on both the client and the
@@ -617,6 +633,17 @@ public abstract class AbstractPart {
         return getDynamicShape(partialTicks);
     }
 
+    /** @return True if {@link #getDynamicShape(float, Vec3d)} (and
+     *         {@link SubdividedPart#getSubpartDynamicShape(Vec3d, Object, float)}) only depend on which part or subpart
+     *         is targeted, and don't change until {@link #recalculateShape()} is called. If this returns true then the
+     *         selection outline is only recomputed when the targeted part or subpart changes, rather than every frame.
+     *         <p>
+     *         By default this only returns true if neither getDynamicShape method is overridden, and this isn't a
+     *         {@link SubdividedPart}. */
+    public boolean canCacheDynamicShape() {
+        return HAS_STATIC_DYNAMIC_SHAPE.get(getClass());
+    }
+
     /** @return True if this pluggable should be an {@link AttributeList#obstruct(VoxelShape) obstacle} for attributes
      *         with it's {@link #getShape()} when searching in this particular direction. */
     public boolean isBlocking(Direction searchDirection) {
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api;
+
+import alexiil.mc.lib.multipart.api.event.PartTickEvent;
+
+/** Optional interface for {@link AbstractPart} implementations which need to be ticked every game tick, as an
+ * alternative to listening for the {@link PartTickEvent}.
+ * <p>
+ * If batched ticking is enabled (with "-Dlibmultipart.batch_ticks=true") then on the server every part which
+ * implements this is ticked by a per-world scheduler at the end of the world tick, grouped by the part's class (so all
+ * parts of the same class are ticked one after another, regardless of which container they are in). Otherwise (and
+ * always on the client) {@link #tickBatched()} is called from a {@link PartTickEvent} listener, exactly as if the part
+ * had registered it itself.
+ * <p>
+ * Parts are only ticked while they are in a loaded, ticking chunk, and are never ticked after
+ * {@link AbstractPart#onRemoved()} has been called. As the tick may happen at a different point in the world tick to
+ * the block entity tick, implementations shouldn't depend on the order that they are ticked relative to other parts
+ * in the same container. */
+public interface BatchTickedPart {
+
+    /** Called once per tick. */
+    void tickBatched();
+}
@@ -8,6 +8,7 @@
 package alexiil.mc.lib.multipart.api;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -154,6 +155,50 @@ public interface MultipartContainer {
         return offerNewPart(creator, true);
     }
 
+    /** Offers several new parts to this container at once, for example a cable and all of it's covers. Every part is
+     * checked against both the existing parts and every other offered part (in list order), and the whole offer is
+     * refused if any of them can't be added. Note that parts which are already in the container can't see the
+     * offered parts (when handling {@link alexiil.mc.lib.multipart.api.event.PartOfferedEvent}) until they are
+     * actually added.
+     * <p>
+     * The default implementation can't check the offered parts against each other, so it only accepts a single part
+     * (through {@link #offerNewPart(MultipartCreator, boolean)}) and refuses any larger offer.
+     * 
+     * @param creators The creators for every part, in the order that they will be added.
+     * @param respectEntityBBs whether to respect nearby entities bounding boxes, or not
+     * @return either null (if any of the offered parts were refused) or an offer object which lets you add all of them
+     *         via {@link MultiPartOffer#apply()}, or do nothing */
+    @Nullable
+    default MultiPartOffer offerNewParts(List<MultipartCreator> creators, boolean respectEntityBBs) {
+        if (creators.size() != 1) {
+            return null;
+        }
+        PartOffer offer = offerNewPart(creators.get(0), respectEntityBBs);
+        if (offer == null) {
+            return null;
+        }
+        List<MultipartHolder> holders = Collections.singletonList(offer.getHolder());
+        return new MultiPartOffer() {
+            @Override
+            public List<MultipartHolder> getHolders() {
+                return holders;
+            }
+
+            @Override
+            public void apply() {
+                offer.apply();
+            }
+        };
+    }
+
+    /** Offers several new parts to this container at once, respecting nearby entities' bounding boxes.
+     * 
+     * @see #offerNewParts(List, boolean) */
+    @Nullable
+    default MultiPartOffer offerNewParts(List<MultipartCreator> creators) {
+        return offerNewParts(creators, true);
+    }
+
     /** Shorter form of {@link #offerNewPart(MultipartCreator, boolean)} followed by adding the offer if it was allowed.
      * 
      * @return The holder for the part if it was added, or null if it was not. */
@@ -195,6 +240,15 @@ public interface MultipartContainer {
         AbstractPart create(MultipartHolder holder);
     }
 
+    /** The result of {@link MultipartContainer#offerNewParts(List, boolean)}. */
+    public interface MultiPartOffer {
+        /** @return Every offered part's holder, in the same order as the creators. */
+        List<MultipartHolder> getHolders();
+
+        /** Adds every part to the container, in order. */
+        void apply();
+    }
+
     public interface PartOffer {
         MultipartHolder getHolder();
 
@@ -224,6 +278,15 @@ public interface MultipartContainer {
      * This only recalculates shapes for on the client/server side that it was called from. */
     void recalculateShape();
 
+    /** Recalculates {@link #getCurrentShape()}, {@link #getCollisionShape()}, and {@link #getOutlineShape()} after only
+     * the given part's shape has changed. This is cheaper than {@link #recalculateShape()} as the shapes of every other
+     * part don't need to be checked.
+     * <p>
+     * This only recalculates shapes for on the client/server side that it was called from. */
+    default void recalculateShape(AbstractPart part) {
+        recalculateShape();
+    }
+
     /** Should be called on the server to ensure {@link #recalculateShape()} is called on both the server and the
      * client. */
     void recalculateShapeSynced();
@@ -13,6 +13,7 @@ import alexiil.mc.lib.multipart.api.event.ContextlessEvent;
 import alexiil.mc.lib.multipart.api.event.EventListener;
 import alexiil.mc.lib.multipart.api.event.MultipartEvent;
 import alexiil.mc.lib.multipart.api.event.MultipartEventExternalListener;
+import alexiil.mc.lib.multipart.api.event.StoppableEvent;
 
 /** The event bus for {@link MultipartContainer}'s. */
 public interface MultipartEventBus {
@@ -102,7 +103,8 @@ public interface MultipartEventBus {
         return addListener(key, clazz, new ExternalListener<>(container, listener));
     }
 
-    /** Fires the given event to all currently registered listeners.
+    /** Fires the given event to all currently registered listeners. If the event is a {@link StoppableEvent} then it's
+     * only delivered until {@link StoppableEvent#isDispatchStopped()} returns true.
      * 
      * @return True if any listeners received the given event, false if none did. This may be useful for optimisation
      *         purposes. */
@@ -125,6 +127,9 @@ public interface MultipartEventBus {
     /** @return A list of every {@link ListenerInfo} current registered to this event bus. */
     List<? extends ListenerInfo<?>> getAllListeners();
 
+    /** @return True if {@link #fireEvent(MultipartEvent)} would deliver an event of the given class to at least one
+     *         listener. This is intended to be cheap enough to call before constructing an event, so that events which
+     *         no-one listens to don't need to be created at all. */
     default boolean hasAnyListenersFor(Class<? extends MultipartEvent> clazz) {
         return !getListeners(clazz).isEmpty();
     }
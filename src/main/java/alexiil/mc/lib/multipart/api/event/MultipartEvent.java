@@ -10,7 +10,13 @@ package alexiil.mc.lib.multipart.api.event;
 import alexiil.mc.lib.multipart.api.MultipartContainer;
 
 /** The base class for all events that take place in a {@link MultipartContainer}. Most event classes are shortened to
- * just "Part[EventName]" rather than "MultipartEvent[EventName]" */
+ * just "Part[EventName]" rather than "MultipartEvent[EventName]"
+ * <p>
+ * Some frequently fired events are documented as <em>reusable</em>: if LMP is run with
+ * {@code -Dlibmultipart.reuse_events=true} then a single instance of those events is re-used for every call (unless
+ * the event is fired again while it's still being handled). The fields of a reusable event are only valid while it's
+ * being dispatched: listeners must not modify them, or keep a reference to the event after they return, since LMP
+ * refills the same instance for the next call and clears any references to other objects once dispatch finishes. */
 public abstract class MultipartEvent {
 
 }
@@ -14,11 +14,13 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.world.WorldAccess;
 
 /** Fired when a neighbouring block was updated in
- * {@link Block#getStateForNeighborUpdate(BlockState, Direction, BlockState, WorldAccess, BlockPos, BlockPos)}. */
+ * {@link Block#getStateForNeighborUpdate(BlockState, Direction, BlockState, WorldAccess, BlockPos, BlockPos)}.
+ * <p>
+ * This is a {@linkplain MultipartEvent reusable event}, so its fields are only valid while it's being dispatched. */
 public class NeighbourStateUpdateEvent extends MultipartEvent {
-    public final Direction direction;
-    public final BlockPos pos;
-    public final BlockState newState;
+    public Direction direction;
+    public BlockPos pos;
+    public BlockState newState;
 
     public NeighbourStateUpdateEvent(Direction direction, BlockPos pos, BlockState newState) {
         this.direction = direction;
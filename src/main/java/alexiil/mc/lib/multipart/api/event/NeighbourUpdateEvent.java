@@ -9,9 +9,11 @@ package alexiil.mc.lib.multipart.api.event;
 
 import net.minecraft.util.math.BlockPos;
 
-/** Fired when a neighbouring block was updated. */
+/** Fired when a neighbouring block was updated.
+ * <p>
+ * This is a {@linkplain MultipartEvent reusable event}, so its fields are only valid while it's being dispatched. */
 public class NeighbourUpdateEvent extends MultipartEvent {
-    public final BlockPos pos;
+    public BlockPos pos;
 
     public NeighbourUpdateEvent(BlockPos pos) {
         this.pos = pos;
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api.event;
+
+import java.util.Set;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+/** A coalesced version of {@link NeighbourUpdateEvent} and {@link NeighbourStateUpdateEvent}: rather than being fired
+ * for every single update this is fired (at most) once per tick, at the start of the container's next tick, with every
+ * position and side that was updated since the last time this was fired.
+ * <p>
+ * This is intended for parts that only need to know <em>that</em> something nearby has changed (for example to
+ * recalculate their connections), as multiple neighbour updates are often fired in the same tick. Updates are only
+ * collected while at least one listener is registered for this event. */
+public final class NeighboursChangedEvent extends MultipartEvent {
+
+    /** Every side that was updated directly. This doesn't include updates from blocks that aren't directly adjacent to
+     * the container (although their positions are still included in {@link #positions}). */
+    public final Set<Direction> sides;
+
+    /** Every position that caused an update. */
+    public final Set<BlockPos> positions;
+
+    public NeighboursChangedEvent(Set<Direction> sides, Set<BlockPos> positions) {
+        this.sides = sides;
+        this.positions = positions;
+    }
+
+    public boolean hasChanged(Direction side) {
+        return sides.contains(side);
+    }
+}
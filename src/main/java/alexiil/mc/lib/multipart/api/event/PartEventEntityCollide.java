@@ -13,9 +13,11 @@ import net.minecraft.entity.Entity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-/** Fired in {@link Block#onEntityCollision(BlockState, World, BlockPos, Entity)}. */
+/** Fired in {@link Block#onEntityCollision(BlockState, World, BlockPos, Entity)}.
+ * <p>
+ * This is a {@linkplain MultipartEvent reusable event}, so its fields are only valid while it's being dispatched. */
 public final class PartEventEntityCollide extends MultipartEvent {
-    public final Entity entity;
+    public Entity entity;
 
     public PartEventEntityCollide(Entity entity) {
         this.entity = entity;
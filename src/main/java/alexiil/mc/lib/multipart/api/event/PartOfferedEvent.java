@@ -12,8 +12,10 @@ import alexiil.mc.lib.multipart.api.MultipartContainer;
 import alexiil.mc.lib.multipart.api.MultipartContainer.MultipartCreator;
 
 /** Fired whenever an {@link AbstractPart} is {@link MultipartContainer#offerNewPart(MultipartCreator, boolean) offered} or
- * {@link MultipartContainer#addNewPart(MultipartCreator) added} to a {@link MultipartContainer}. */
-public final class PartOfferedEvent extends MultipartEvent {
+ * {@link MultipartContainer#addNewPart(MultipartCreator) added} to a {@link MultipartContainer}.
+ * <p>
+ * This is a {@link StoppableEvent}: once a listener has disallowed the part no other listeners will receive this. */
+public final class PartOfferedEvent extends MultipartEvent implements StoppableEvent {
     public final AbstractPart part;
     private boolean isAllowed = true;
 
@@ -29,4 +31,9 @@ public final class PartOfferedEvent extends MultipartEvent {
     public void disallow() {
         isAllowed = false;
     }
+
+    @Override
+    public boolean isDispatchStopped() {
+        return !isAllowed;
+    }
 }
@@ -19,7 +19,9 @@ import alexiil.mc.lib.multipart.impl.LmpInternalOnly;
 /** Fired during {@link Block#getStrongRedstonePower(BlockState, BlockView,BlockPos, Direction)} and
  * {@link Block#getWeakRedstonePower(BlockState, BlockView, BlockPos, Direction)}, however the more specific classes
  * {@link PartStrongRedstonePowerEvent} and {@link PartWeakRedstonePowerEvent} are only fired during their respective
- * method calls. */
+ * method calls.
+ * <p>
+ * This is a {@linkplain MultipartEvent reusable event}, so its fields are only valid while it's being dispatched. */
 public abstract class PartRedstonePowerEvent extends MultipartEvent {
 
     @LmpInternalOnly
@@ -28,12 +30,19 @@ public abstract class PartRedstonePowerEvent extends MultipartEvent {
     @LmpInternalOnly
     static final PartRedstonePowerEventFactory WEAK_FACTORY = PartWeakRedstonePowerEvent::new;
 
+    @LmpInternalOnly
+    static final PartRedstonePowerEventResetter RESETTER = (event, powerProperty, side) -> {
+        event.powerProperty = powerProperty;
+        event.side = side;
+        event.value = powerProperty;
+    };
+
     /** The value in {@link MultipartProperties#getWeakRedstonePower(Direction)} (and
      * {@link MultipartProperties#getStrongRedstonePower(Direction)} if this {@link #isStrong()}). */
-    public final int powerProperty;
+    public int powerProperty;
 
     /** @return The side of the block that is being */
-    public final Direction side;
+    public Direction side;
 
     @LmpInternalOnly
     int value;
@@ -83,4 +92,11 @@ public abstract class PartRedstonePowerEvent extends MultipartEvent {
     public interface PartRedstonePowerEventFactory {
         PartRedstonePowerEvent create(int fromProperty, Direction side);
     }
+
+    /** Resets an existing event so it can be fired again. Not part of the public api, for the same reason as
+     * {@link PartRedstonePowerEventFactory}. */
+    @FunctionalInterface
+    public interface PartRedstonePowerEventResetter {
+        void reset(PartRedstonePowerEvent event, int fromProperty, Direction side);
+    }
 }
@@ -15,11 +15,12 @@ import alexiil.mc.lib.multipart.api.misc.DirectionTransformationUtil;
  * Used to check if all parts in a multipart block support a type of transformation.
  * <p>
  * If any parts mark the given transformation as invalid, then the given transformation will not be applied to any part
- * in the multipart block.
+ * in the multipart block. This is a {@link StoppableEvent}, so once the transformation has been marked as invalid no
+ * other listeners will receive this.
  *
  * @see PartTransformEvent
  */
-public class PartTransformCheckEvent extends MultipartEvent {
+public class PartTransformCheckEvent extends MultipartEvent implements StoppableEvent {
     public final DirectionTransformation transformation;
 
     private boolean invalid = false;
@@ -52,4 +53,9 @@ public class PartTransformCheckEvent extends MultipartEvent {
     public void allowOnlyRotationOrMirror() {
         invalid = invalid || !DirectionTransformationUtil.isRotationOrMirror(transformation);
     }
+
+    @Override
+    public boolean isDispatchStopped() {
+        return invalid;
+    }
 }
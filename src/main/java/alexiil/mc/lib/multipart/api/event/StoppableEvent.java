@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api.event;
+
+import alexiil.mc.lib.multipart.api.MultipartEventBus;
+
+/** Interface for {@link MultipartEvent}'s whose outcome can be decided before every listener has received it: for
+ * example once a {@link PartOfferedEvent} has been {@link PartOfferedEvent#disallow() disallowed} nothing any other
+ * listener does can change the result. {@link MultipartEventBus#fireEvent(MultipartEvent)} checks
+ * {@link #isDispatchStopped()} after every listener, and won't deliver this event to any more listeners once it
+ * returns true.
+ * <p>
+ * As such listeners for these events shouldn't depend on always receiving them. */
+public interface StoppableEvent {
+
+    /** @return True if this event shouldn't be delivered to any more listeners. */
+    boolean isDispatchStopped();
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api.misc;
+
+import alexiil.mc.lib.net.IMsgWriteCtx;
+import alexiil.mc.lib.net.NetByteBuf;
+import alexiil.mc.lib.net.NetIdDataK;
+import alexiil.mc.lib.net.NetIdDataK.IMsgDataWriterK;
+
+import alexiil.mc.lib.multipart.api.MultipartContainer;
+
+/** An {@link IMsgDataWriterK} which writes exactly the same bytes regardless of the connection it's writing to. If LMP
+ * is run with {@code -Dlibmultipart.share_encoding=true} then writers passed to
+ * {@link MultipartContainer#sendNetworkUpdate(Object, NetIdDataK, IMsgDataWriterK)} which implement this are only
+ * called once per message (with the context of the first connection), and the written bytes are copied for every
+ * other player watching the container.
+ * <p>
+ * Implementations must not read anything from the {@link IMsgWriteCtx} (other than asserting the side), or use any
+ * per-connection state such as object caches. The bytes are written into a new buffer, so (as with a normal write) the
+ * first bit-packed write (like {@link NetByteBuf#writeBoolean(boolean)}) starts a new byte. This is only equivalent to
+ * writing directly if the parents of the {@link NetIdDataK} only write whole bytes, which is true of every parent
+ * that LMP defines. */
+@FunctionalInterface
+public interface ConnectionIndependentWriter<T> extends IMsgDataWriterK<T> {}
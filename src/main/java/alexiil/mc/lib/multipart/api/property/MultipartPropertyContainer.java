@@ -9,6 +9,8 @@ package alexiil.mc.lib.multipart.api.property;
 
 import alexiil.mc.lib.multipart.api.AbstractPart;
 import alexiil.mc.lib.multipart.api.MultipartContainer;
+import alexiil.mc.lib.multipart.api.MultipartEventBus;
+import alexiil.mc.lib.multipart.api.MultipartEventBus.ListenerInfo;
 
 public interface MultipartPropertyContainer {
 
@@ -30,4 +32,47 @@ public interface MultipartPropertyContainer {
 
     /** Removes all property values set for the given key. */
     void clearValues(Object key);
+
+    /** Adds a listener that is called whenever the combined value of the given property changes. This is cheaper than
+     * listening for {@link PartPropertyChangedEvent}, as the listener is only called for the single property.
+     * <p>
+     * Like event listeners all of these are removed when the container is (re)loaded, so they should be added in
+     * {@link AbstractPart#onAdded(MultipartEventBus)}. They are also removed when the part is removed.
+     * <p>
+     * The default implementation listens for {@link PartPropertyChangedEvent} on the container's event bus (under the
+     * same key), so it's only cheaper if this is overridden.
+     * 
+     * @param key The key to add the listener under, compared with identity equality. If the listener is added by an
+     *            {@link AbstractPart} then this should be the part itself. */
+    default <T> void addChangeListener(Object key, MultipartProperty<T> property, PropertyChangeListener<T> listener) {
+        addEventListener(key, new PropertyChangeEventListener(property, listener, null, null));
+    }
+
+    /** Integer version of {@link #addChangeListener(Object, MultipartProperty, PropertyChangeListener)}, which never
+     * boxes the values (unless this isn't overridden). */
+    default void addIntChangeListener(
+        Object key, MultipartProperty<Integer> property, PropertyChangeListener.OfInt listener
+    ) {
+        addEventListener(key, new PropertyChangeEventListener(property, null, listener, null));
+    }
+
+    /** Boolean version of {@link #addChangeListener(Object, MultipartProperty, PropertyChangeListener)}. */
+    default void addBooleanChangeListener(
+        Object key, MultipartProperty<Boolean> property, PropertyChangeListener.OfBoolean listener
+    ) {
+        addEventListener(key, new PropertyChangeEventListener(property, null, null, listener));
+    }
+
+    /** Removes every change listener that was added with the given key. */
+    default void removeChangeListeners(Object key) {
+        for (ListenerInfo<?> info : getContainer().getEventBus().getListenersForKey(key)) {
+            if (info.getListener() instanceof PropertyChangeEventListener) {
+                info.remove();
+            }
+        }
+    }
+
+    private void addEventListener(Object key, PropertyChangeEventListener listener) {
+        getContainer().getEventBus().addListener(key, PartPropertyChangedEvent.class, listener);
+    }
 }
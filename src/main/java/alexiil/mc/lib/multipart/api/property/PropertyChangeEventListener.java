@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api.property;
+
+import alexiil.mc.lib.multipart.api.event.EventListener;
+
+/** Adapts a {@link PropertyChangeListener} into a {@link PartPropertyChangedEvent} listener, for the default methods in
+ * {@link MultipartPropertyContainer}. Exactly one of the listener fields is non-null. */
+@SuppressWarnings("rawtypes")
+final class PropertyChangeEventListener implements EventListener<PartPropertyChangedEvent> {
+    final MultipartProperty<?> property;
+    final PropertyChangeListener<?> listener;
+    final PropertyChangeListener.OfInt intListener;
+    final PropertyChangeListener.OfBoolean booleanListener;
+
+    PropertyChangeEventListener(
+        MultipartProperty<?> property, PropertyChangeListener<?> listener, PropertyChangeListener.OfInt intListener,
+        PropertyChangeListener.OfBoolean booleanListener
+    ) {
+        this.property = property;
+        this.listener = listener;
+        this.intListener = intListener;
+        this.booleanListener = booleanListener;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onEvent(PartPropertyChangedEvent event) {
+        if (event.property != property) {
+            return;
+        }
+        if (listener != null) {
+            ((PropertyChangeListener) listener).onChange(event.oldValue, event.newValue);
+        } else if (intListener != null) {
+            intListener.onChange((Integer) event.oldValue, (Integer) event.newValue);
+        } else {
+            booleanListener.onChange((Boolean) event.newValue);
+        }
+    }
+}
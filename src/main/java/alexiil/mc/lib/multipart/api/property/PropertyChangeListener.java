@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.api.property;
+
+/** Called whenever the combined value of a single {@link MultipartProperty} changes. Registered with
+ * {@link MultipartPropertyContainer#addChangeListener(Object, MultipartProperty, PropertyChangeListener)}. */
+@FunctionalInterface
+public interface PropertyChangeListener<T> {
+    void onChange(T oldValue, T newValue);
+
+    /** A {@link PropertyChangeListener} for integer properties, which is called without boxing the values. */
+    @FunctionalInterface
+    public interface OfInt {
+        void onChange(int oldValue, int newValue);
+    }
+
+    /** A {@link PropertyChangeListener} for boolean properties. As the value must have changed the old value is always
+     * the opposite of the new value. */
+    @FunctionalInterface
+    public interface OfBoolean {
+        void onChange(boolean newValue);
+    }
+}
@@ -23,9 +23,7 @@ import mcp.mobius.waila.api.WailaConstants;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.util.shape.VoxelShape;
 
 import alexiil.mc.lib.multipart.api.AbstractPart;
 import alexiil.mc.lib.multipart.api.MultipartContainer;
@@ -81,16 +79,6 @@ public class LibMultiPartPlugin implements IWailaPlugin, IBlockComponentProvider
         }
 
         Vec3d vec = accessor.getHitResult().getPos().subtract(Vec3d.of(pos));
-        return container.getFirstPart(part -> doesContain(part, vec));
-    }
-
-    private static boolean doesContain(AbstractPart part, Vec3d vec) {
-        VoxelShape shape = part.getOutlineShape();
-        for (Box box : shape.getBoundingBoxes()) {
-            if (box.expand(0.01).contains(vec)) {
-                return true;
-            }
-        }
-        return false;
+        return container.getPart(vec);
     }
 }
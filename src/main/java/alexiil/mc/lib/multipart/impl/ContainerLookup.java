@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+import alexiil.mc.lib.multipart.mixin.api.IWorldChunkMultipart;
+import alexiil.mc.lib.multipart.mixin.impl.WorldAccessor;
+
+/** Finds the {@link PartContainer} at a given position through a per-chunk-section side table (stored in each
+ * {@link WorldChunk} by a mixin), rather than going through the chunk's block entity map. This is used by the
+ * {@link MultipartBlock} shape getters, which are called very often (for example when entities move across a floor of
+ * multiparts) as the block has dynamic bounds.
+ * <p>
+ * Containers are added to the table the first time they are looked up from the thread that owns the world, and remove
+ * themselves when they are invalidated or their chunk is unloaded. Other threads (like chunk meshing threads on the
+ * client) can read the table, but never modify it or {@link PartContainer#lookupChunk}. As the table stores the
+ * container itself (rather than it's shapes) nothing needs to change when a container's shape changes. */
+final class ContainerLookup {
+
+    private ContainerLookup() {}
+
+    /** @return The container at the given position, or null if there isn't one. */
+    @Nullable
+    static PartContainer get(BlockView view, BlockPos pos) {
+        WorldChunk chunk = getChunk(view, pos);
+        if (chunk == null) {
+            return getFromBlockEntity(view, pos);
+        }
+        int section = chunk.getSectionIndex(pos.getY());
+        int local = ChunkSectionPos.packLocal(pos);
+        Object stored = ((IWorldChunkMultipart) chunk).libmultipart_getContainer(section, local);
+        if (stored instanceof PartContainer container && !container.blockEntity.isRemoved()) {
+            return container;
+        }
+        PartContainer container = getFromBlockEntity(view, pos);
+        if (container != null && !container.blockEntity.isRemoved() && isOwningThread(chunk.getWorld())) {
+            remove(container);
+            ((IWorldChunkMultipart) chunk).libmultipart_setContainer(section, local, container);
+            container.lookupChunk = chunk;
+        }
+        return container;
+    }
+
+    /** Removes the given container from the side table, if it was stored in it. */
+    static void remove(PartContainer container) {
+        WorldChunk chunk = container.lookupChunk;
+        if (chunk == null) {
+            return;
+        }
+        container.lookupChunk = null;
+        BlockPos pos = container.getMultipartPos();
+        int section = chunk.getSectionIndex(pos.getY());
+        int local = ChunkSectionPos.packLocal(pos);
+        IWorldChunkMultipart table = (IWorldChunkMultipart) chunk;
+        if (table.libmultipart_getContainer(section, local) == container) {
+            table.libmultipart_setContainer(section, local, null);
+        }
+    }
+
+    @Nullable
+    private static WorldChunk getChunk(BlockView view, BlockPos pos) {
+        if (view instanceof WorldChunk chunk) {
+            return chunk.getPos().x == pos.getX() >> 4 && chunk.getPos().z == pos.getZ() >> 4 ? chunk : null;
+        }
+        if (view instanceof World world) {
+            if (world instanceof ServerWorld server && !server.getServer().isOnThread()) {
+                // The server chunk manager blocks on the main thread when called from other threads
+                return null;
+            }
+            if (world.isOutOfHeightLimit(pos)) {
+                return null;
+            }
+            return world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4, false);
+        }
+        return null;
+    }
+
+    /** @return True if the current thread is the one that the given world runs on, and so can modify the table. */
+    private static boolean isOwningThread(World world) {
+        return Thread.currentThread() == ((WorldAccessor) world).getThread();
+    }
+
+    @Nullable
+    private static PartContainer getFromBlockEntity(BlockView view, BlockPos pos) {
+        BlockEntity be = view.getBlockEntity(pos);
+        return be instanceof MultipartBlockEntity multi ? multi.container : null;
+    }
+}
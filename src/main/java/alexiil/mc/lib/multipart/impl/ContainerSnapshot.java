@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+import alexiil.mc.lib.multipart.api.render.PartModelKey;
+import alexiil.mc.lib.multipart.impl.client.PartModelData;
+
+/** An immutable copy of the parts, model keys, and shapes of a {@link PartContainer}. A new snapshot is published
+ * (through a single volatile field) by the thread that owns the container whenever any of those change, so that other
+ * threads (like chunk rebuild threads) can read a consistent view of the container without locking it.
+ * <p>
+ * This is also the only place that the combined shapes of every part are cached: the container reads them through
+ * its current snapshot, and passes the ones that have already been computed (and are still valid) on to the next
+ * snapshot. The rest (and the cull faces) are only computed when they are first requested, from the shape snapshot
+ * of every part. */
+public final class ContainerSnapshot {
+
+    static final ContainerSnapshot EMPTY
+        = new ContainerSnapshot(ImmutableList.of(), ImmutableList.of(), new VoxelShape[0][], emptyShapes(), null);
+
+    public final ImmutableList<AbstractPart> parts;
+    public final ImmutableList<PartModelKey> modelKeys;
+
+    /** The shape snapshot of every part, in the same order as {@link #parts}. These arrays are never modified. */
+    private final VoxelShape[][] partShapes;
+
+    /** Indexed by the SHAPE_ constants in {@link PartContainer}. Null entries are computed (from {@link #partShapes})
+     * when they are first requested. This doesn't need to be volatile, as computing them is idempotent and every
+     * {@link VoxelShape} is safe to publish through a data race. */
+    private final VoxelShape[] shapes;
+
+    /** Lazily computed by {@link #getCullFaces()}. Initially the cull faces of the previous snapshot (if they were
+     * computed), which are re-used if the culling shape hasn't changed. */
+    private CullFaces cullFaces;
+
+    /** Only created when it's first requested, as it's not needed on the server. This doesn't need to be volatile as
+     * every field in {@link PartModelData} is final. */
+    private PartModelData renderData;
+
+    /** @param shapes The combined shapes which are already known. Null entries are computed later. */
+    ContainerSnapshot(
+        ImmutableList<AbstractPart> parts, ImmutableList<PartModelKey> modelKeys, VoxelShape[][] partShapes,
+        VoxelShape[] shapes, @Nullable CullFaces previousCullFaces
+    ) {
+        this.parts = parts;
+        this.modelKeys = modelKeys;
+        this.partShapes = partShapes;
+        this.shapes = shapes;
+        this.cullFaces = previousCullFaces;
+    }
+
+    private static VoxelShape[] emptyShapes() {
+        VoxelShape[] shapes = new VoxelShape[PartContainer.SHAPE_COUNT];
+        Arrays.fill(shapes, VoxelShapes.empty());
+        return shapes;
+    }
+
+    /** @return A copy of the combined shapes, with null entries for the ones which haven't been computed yet. */
+    VoxelShape[] copyShapes() {
+        return shapes.clone();
+    }
+
+    /** @return True if any of the combined shapes have been computed. */
+    boolean hasComputedShapes() {
+        for (VoxelShape shape : shapes) {
+            if (shape != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return The cull faces that were last computed for this (or an earlier) snapshot, or null if they never
+     *         were. */
+    @Nullable
+    CullFaces getComputedCullFaces() {
+        return cullFaces;
+    }
+
+    /** @param type One of the SHAPE_ constants in {@link PartContainer}. */
+    VoxelShape getShape(int type) {
+        VoxelShape shape = shapes[type];
+        if (shape == null) {
+            shape = VoxelShapes.empty();
+            for (VoxelShape[] part : partShapes) {
+                shape = ShapeCache.union(shape, part[type]);
+            }
+            if (shape.isEmpty()) {
+                shape = VoxelShapes.empty();
+            }
+            shapes[type] = shape;
+        }
+        return shape;
+    }
+
+    public VoxelShape getCollisionShape() {
+        return getShape(PartContainer.SHAPE_COLLISION);
+    }
+
+    public VoxelShape getCullingShape() {
+        return getShape(PartContainer.SHAPE_CULLING);
+    }
+
+    public VoxelShape getOutlineShape() {
+        return getShape(PartContainer.SHAPE_OUTLINE);
+    }
+
+    public VoxelShape getSidesShape() {
+        return getShape(PartContainer.SHAPE_SIDES);
+    }
+
+    /** @return The {@link CullFaces} of {@link #getCullingShape()}. */
+    public CullFaces getCullFaces() {
+        VoxelShape shape = getCullingShape();
+        CullFaces faces = cullFaces;
+        if (faces == null || faces.shape != shape) {
+            cullFaces = faces = CullFaces.of(shape);
+        }
+        return faces;
+    }
+
+    public PartModelData getRenderData() {
+        PartModelData data = renderData;
+        if (data == null) {
+            data = new PartModelData(
+                getCullingShape(), getCollisionShape(), getOutlineShape(), getSidesShape(), modelKeys, getCullFaces()
+            );
+            renderData = data;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.Block;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+/** The culling face (as returned by {@link net.minecraft.block.BlockState#getCullingFace}) of a container's culling
+ * shape in every direction, as well as which of those faces are completely full or empty. This is the multipart
+ * equivalent of vanilla's per-state shape cache, which isn't used because {@link MultipartBlock} has dynamic bounds.
+ * Instances are immutable, so they can be published to chunk rebuild threads inside
+ * {@link alexiil.mc.lib.multipart.impl.client.PartModelData}. */
+public final class CullFaces {
+
+    public static final CullFaces EMPTY = new CullFaces(VoxelShapes.empty());
+    public static final CullFaces FULL = new CullFaces(VoxelShapes.fullCube());
+
+    /** The culling shape that the faces were computed from. */
+    public final VoxelShape shape;
+
+    private final VoxelShape[] faces = new VoxelShape[6];
+    private final int fullMask;
+    private final int emptyMask;
+
+    private CullFaces(VoxelShape shape) {
+        this.shape = shape;
+        int full = 0;
+        int empty = 0;
+        for (Direction dir : Direction.values()) {
+            VoxelShape face = VoxelShapes.extrudeFace(shape, dir);
+            faces[dir.getId()] = face;
+            if (face.isEmpty()) {
+                empty |= 1 << dir.getId();
+            } else if (Block.isShapeFullCube(face)) {
+                full |= 1 << dir.getId();
+            }
+        }
+        this.fullMask = full;
+        this.emptyMask = empty;
+    }
+
+    public static CullFaces of(VoxelShape cullingShape) {
+        if (cullingShape.isEmpty()) {
+            return EMPTY;
+        }
+        if (cullingShape == VoxelShapes.fullCube()) {
+            return FULL;
+        }
+        return new CullFaces(cullingShape);
+    }
+
+    public VoxelShape getFace(Direction dir) {
+        return faces[dir.getId()];
+    }
+
+    /** @return True if the face in the given direction completely covers that side of the block. */
+    public boolean isFull(Direction dir) {
+        return (fullMask & (1 << dir.getId())) != 0;
+    }
+
+    public boolean isEmpty(Direction dir) {
+        return (emptyMask & (1 << dir.getId())) != 0;
+    }
+
+    /** Decides whether a block's face should be drawn from the cull faces alone, when either block is a multipart.
+     * Parts declare their opacity through {@link alexiil.mc.lib.multipart.api.AbstractPart#getCullingShape()}, which
+     * is what the cull faces are built from.
+     *
+     * @param faces The cull faces of the block being drawn, or null if it isn't a multipart.
+     * @param facing The side of the block being drawn.
+     * @param oFaces The cull faces of the neighbouring block, or null if it isn't a multipart.
+     * @param oOpaque True if the neighbouring block state is opaque.
+     * @return The result of {@link Block#shouldDrawSide}, or null if it depends on comparing partial faces. Against an
+     *         empty neighbour face this is always true, like vanilla. */
+    @Nullable
+    public static Boolean shouldDrawSide(
+        @Nullable CullFaces faces, Direction facing, @Nullable CullFaces oFaces, boolean oOpaque
+    ) {
+        if (faces != null && faces.isEmpty(facing) && (oFaces != null || oOpaque)) {
+            return Boolean.FALSE;
+        }
+        if (oFaces != null) {
+            Direction opposite = facing.getOpposite();
+            if (oFaces.isFull(opposite)) {
+                return Boolean.FALSE;
+            }
+            if (oFaces.isEmpty(opposite)) {
+                return Boolean.TRUE;
+            }
+        } else if (!oOpaque) {
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mojang.brigadier.CommandDispatcher;
+
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.loader.api.FabricLoader;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import alexiil.mc.lib.multipart.api.event.MultipartEvent;
+import alexiil.mc.lib.multipart.api.event.StoppableEvent;
+import alexiil.mc.lib.multipart.impl.SimpleEventBus.SingleListener;
+
+/** Records how long every {@link SimpleEventBus#fireEvent(MultipartEvent)} call takes, grouped by event class and by
+ * the class of each listener's key. Only used if {@link LibMultiPart#PROFILE_EVENTS} is true.
+ * <p>
+ * All times are inclusive: if a listener fires another event then the time taken by that event is also counted
+ * against the outer event (and listener key). The statistics are shared between every bus in every world, and can be
+ * viewed, reset, or dumped to a file with the "/libmultipart profile" command. */
+final class EventProfiler {
+
+    /** The number of entries shown by the command, per table. The dumped file contains every entry. */
+    private static final int COMMAND_ENTRY_COUNT = 10;
+
+    private static final Map<Class<?>, Stats> EVENT_STATS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Stats> KEY_STATS = new ConcurrentHashMap<>();
+
+    private EventProfiler() {}
+
+    static void init() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
+            registerCommand(dispatcher);
+        });
+    }
+
+    static void dispatch(MultipartEvent event, SingleListener<?>[] receivers) {
+        StoppableEvent stoppable = event instanceof StoppableEvent s ? s : null;
+        long eventStart = System.nanoTime();
+        for (SingleListener<?> listener : receivers) {
+            long start = System.nanoTime();
+            listener.onEvent(event);
+            Object key = listener.key;
+            record(KEY_STATS, key == null ? Void.class : key.getClass(), System.nanoTime() - start);
+            if (stoppable != null && stoppable.isDispatchStopped()) {
+                break;
+            }
+        }
+        record(EVENT_STATS, event.getClass(), System.nanoTime() - eventStart);
+    }
+
+    private static void record(Map<Class<?>, Stats> map, Class<?> clazz, long nanos) {
+        Stats stats = map.get(clazz);
+        if (stats == null) {
+            stats = map.computeIfAbsent(clazz, c -> new Stats());
+        }
+        stats.record(nanos);
+    }
+
+    private static void registerCommand(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(
+            CommandManager.literal(LibMultiPart.NAMESPACE)//
+                .requires(source -> source.hasPermissionLevel(2))//
+                .then(
+                    CommandManager.literal("profile")//
+                        .executes(ctx -> {
+                            List<String> lines = new ArrayList<>();
+                            appendReport(lines, COMMAND_ENTRY_COUNT);
+                            for (String line : lines) {
+                                ctx.getSource().sendFeedback(() -> Text.literal(line), false);
+                            }
+                            return 1;
+                        })//
+                        .then(CommandManager.literal("reset").executes(ctx -> {
+                            EVENT_STATS.clear();
+                            KEY_STATS.clear();
+                            ctx.getSource().sendFeedback(() -> Text.literal("Cleared the event statistics"), true);
+                            return 1;
+                        }))//
+                        .then(CommandManager.literal("dump").executes(ctx -> {
+                            try {
+                                Path path = dump();
+                                ctx.getSource().sendFeedback(() -> Text.literal("Dumped to " + path), true);
+                                return 1;
+                            } catch (IOException e) {
+                                LibMultiPart.LOGGER.warn("[event-profiler] Failed to dump the event statistics!", e);
+                                ctx.getSource().sendError(Text.literal("Failed to dump: " + e.getMessage()));
+                                return 0;
+                            }
+                        }))
+                )
+        );
+    }
+
+    /** Writes every statistic to a new file in the game directory.
+     * 
+     * @return The file that was written to. */
+    static Path dump() throws IOException {
+        String date = new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date());
+        Path path = FabricLoader.getInstance().getGameDir().resolve("libmultipart-profile-" + date + ".txt");
+        List<String> lines = new ArrayList<>();
+        appendReport(lines, Integer.MAX_VALUE);
+        Files.write(path, lines);
+        return path;
+    }
+
+    static void appendReport(List<String> lines, int maxEntries) {
+        appendTable(lines, "Event class", EVENT_STATS, maxEntries);
+        appendTable(lines, "Listener key class", KEY_STATS, maxEntries);
+    }
+
+    private static void appendTable(List<String> lines, String title, Map<Class<?>, Stats> map, int maxEntries) {
+        List<Map.Entry<Class<?>, long[]>> entries = new ArrayList<>();
+        for (Map.Entry<Class<?>, Stats> entry : map.entrySet()) {
+            entries.add(Map.entry(entry.getKey(), entry.getValue().snapshot()));
+        }
+        // Slowest first
+        entries.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+
+        lines.add(title + " (" + entries.size() + " total): calls, total ms, average ns, max ns");
+        int count = Math.min(maxEntries, entries.size());
+        for (int i = 0; i < count; i++) {
+            Map.Entry<Class<?>, long[]> entry = entries.get(i);
+            long[] values = entry.getValue();
+            lines.add(
+                String.format(
+                    "  %s: %d, %.3f, %d, %d", entry.getKey().getName(), values[0], values[1] / 1_000_000.0,
+                    values[1] / Math.max(1, values[0]), values[2]
+                )
+            );
+        }
+    }
+
+    static final class Stats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        /** @return {count, totalNanos, maxNanos} */
+        synchronized long[] snapshot() {
+            return new long[] { count, totalNanos, maxNanos };
+        }
+    }
+}
@@ -30,6 +30,23 @@ public class LibMultiPart implements ModInitializer {
     public static final Logger LOGGER = LogManager.getLogger(NAMESPACE);
     public static final boolean DEBUG = Boolean.getBoolean("libmultipart.debug");
 
+    /** If true then frequently fired events are re-used rather than being allocated for every call. See
+     * {@link alexiil.mc.lib.multipart.api.event.MultipartEvent} for the contract that listeners must follow. */
+    public static final boolean REUSE_EVENTS = Boolean.getBoolean("libmultipart.reuse_events");
+
+    /** If true then every {@link alexiil.mc.lib.multipart.api.BatchTickedPart} on the server is ticked by a per-world
+     * {@link PartTickScheduler}, grouped by part class, rather than by it's own block entity. */
+    public static final boolean BATCH_TICKS = Boolean.getBoolean("libmultipart.batch_ticks");
+
+    /** If true then every event fired on every multipart event bus is timed by the {@link EventProfiler}. */
+    public static final boolean PROFILE_EVENTS = Boolean.getBoolean("libmultipart.profile_events");
+
+    /** If true then data messages sent to every player watching a multipart are only written once, and then copied to
+     * each player's connection. This only applies to writers which implement
+     * {@link alexiil.mc.lib.multipart.api.misc.ConnectionIndependentWriter}, as other writers may write different data
+     * for each connection. */
+    public static final boolean SHARE_ENCODING = Boolean.getBoolean("libmultipart.share_encoding");
+
     public static final MultipartBlock BLOCK;
     public static final BlockEntityType<MultipartBlockEntity> BLOCK_ENTITY;
 
@@ -68,6 +85,13 @@ public class LibMultiPart implements ModInitializer {
         register(Registries.BLOCK_ENTITY_TYPE, BLOCK_ENTITY, "container");
 
         MultipartBlockEntity.init();
+        PartTickScheduler.init();
+        OutboundMessageQueue.init();
+
+        if (PROFILE_EVENTS) {
+            LOGGER.info("Event profiling enabled for LibMultiPart - use '/libmultipart profile' to view the results");
+            EventProfiler.init();
+        }
     }
 
     private static <T> void register(Registry<T> registry, T obj, String path) {
@@ -11,6 +11,7 @@ import java.util.function.Consumer;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.blockrenderlayer.v1.BlockRenderLayerMap;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.model.ModelLoadingRegistry;
 import net.fabricmc.fabric.api.client.model.ModelProviderContext;
 import net.fabricmc.fabric.api.client.model.ModelProviderException;
@@ -28,6 +29,7 @@ import net.minecraft.util.Identifier;
 import alexiil.mc.lib.multipart.impl.client.model.MultipartModel;
 import alexiil.mc.lib.multipart.impl.client.render.MultipartBlockEntityRenderer;
 import alexiil.mc.lib.multipart.impl.client.render.MultipartOutlineRenderer;
+import alexiil.mc.lib.multipart.impl.client.render.PartOutlineCache;
 
 public class LibMultiPartClient implements ClientModInitializer {
 
@@ -43,6 +45,7 @@ public class LibMultiPartClient implements ClientModInitializer {
         BlockRenderLayerMap.INSTANCE.putBlock(LibMultiPart.BLOCK, RenderLayer.getCutout());
         BlockEntityRendererRegistry.register(LibMultiPart.BLOCK_ENTITY, MultipartBlockEntityRenderer::new);
         WorldRenderEvents.BLOCK_OUTLINE.register(MultipartOutlineRenderer.INSTANCE);
+        ClientTickEvents.END_CLIENT_TICK.register(PartOutlineCache::onClientTick);
     }
 
     private static ModelVariantProvider varProvider() {
@@ -66,8 +66,6 @@ import alexiil.mc.lib.multipart.api.AbstractPart;
 import alexiil.mc.lib.multipart.api.AbstractPart.ItemDropTarget;
 import alexiil.mc.lib.multipart.api.PartLootParams;
 import alexiil.mc.lib.multipart.api.SubdividedPart;
-import alexiil.mc.lib.multipart.api.event.PartEventEntityCollide;
-import alexiil.mc.lib.multipart.api.event.PartPrecipitationTickEvent;
 import alexiil.mc.lib.multipart.api.event.PartRandomDisplayTickEvent;
 import alexiil.mc.lib.multipart.api.event.PartRandomTickEvent;
 import alexiil.mc.lib.multipart.api.event.PartScheduledTickEvent;
@@ -152,8 +150,9 @@ public class MultipartBlock extends Block
             }
         }
 
-        if (view.getBlockEntity(pos) instanceof MultipartBlockEntity container) {
-            return container.container.getCollisionShape();
+        PartContainer container = ContainerLookup.get(view, pos);
+        if (container != null) {
+            return container.getSnapshot().getCollisionShape();
         }
         return VoxelShapes.empty();
     }
@@ -167,8 +166,9 @@ public class MultipartBlock extends Block
             }
         }
 
-        if (view.getBlockEntity(pos) instanceof MultipartBlockEntity container) {
-            return container.container.getOutlineShape();
+        PartContainer container = ContainerLookup.get(view, pos);
+        if (container != null) {
+            return container.getSnapshot().getOutlineShape();
         }
         return VoxelShapes.empty();
     }
@@ -182,8 +182,9 @@ public class MultipartBlock extends Block
             }
         }
 
-        if (view.getBlockEntity(pos) instanceof MultipartBlockEntity container) {
-            return container.container.getCullingShape();
+        PartContainer container = ContainerLookup.get(view, pos);
+        if (container != null) {
+            return container.getSnapshot().getCullingShape();
         }
         return super.getCullingShape(state, view, pos);
     }
@@ -197,12 +198,30 @@ public class MultipartBlock extends Block
             }
         }
 
-        if (view.getBlockEntity(pos) instanceof MultipartBlockEntity container) {
-            return container.container.getSidesShape();
+        PartContainer container = ContainerLookup.get(view, pos);
+        if (container != null) {
+            return container.getSnapshot().getSidesShape();
         }
         return super.getSidesShape(state, view, pos);
     }
 
+    /** @return The {@link CullFaces} for the container at the given position, or null if the given state isn't a
+     *         multipart (or the container couldn't be found). */
+    @Nullable
+    public static CullFaces getCullFaces(BlockState state, BlockView view, BlockPos pos) {
+        if (!(state.getBlock() instanceof MultipartBlock)) {
+            return null;
+        }
+        if (view instanceof RenderAttachedBlockView renderView) {
+            Object data = renderView.getBlockEntityRenderAttachment(pos);
+            if (data instanceof PartModelData partData) {
+                return partData.cullFaces;
+            }
+        }
+        PartContainer container = ContainerLookup.get(view, pos);
+        return container == null ? null : container.getSnapshot().getCullFaces();
+    }
+
     @Override
     public boolean hasDynamicCull(BlockState state) {
         return true;
@@ -263,7 +282,7 @@ public class MultipartBlock extends Block
         BlockEntity be = world.getBlockEntity(pos);
         if (be instanceof MultipartBlockEntity) {
             MultipartBlockEntity container = (MultipartBlockEntity) be;
-            container.container.fireEvent(new PartEventEntityCollide(entity));
+            container.container.onEntityCollision(entity);
         }
     }
 
@@ -309,7 +328,7 @@ public class MultipartBlock extends Block
     public void precipitationTick(BlockState state, World world, BlockPos pos, Biome.Precipitation precipitation) {
         BlockEntity be = world.getBlockEntity(pos);
         if (be instanceof MultipartBlockEntity container) {
-            container.container.fireEvent(new PartPrecipitationTickEvent(precipitation));
+            container.container.onPrecipitationTick(precipitation);
         }
     }
 
@@ -655,20 +674,31 @@ public class MultipartBlock extends Block
         if (be instanceof MultipartBlockEntity) {
             MultipartBlockEntity multi = (MultipartBlockEntity) be;
 
-            vec = vec.subtract(Vec3d.of(pos));
+            double x = vec.x - pos.getX();
+            double y = vec.y - pos.getY();
+            double z = vec.z - pos.getZ();
+            Vec3d relative = null;
 
-            for (PartHolder holder : multi.container.parts) {
+            PartTargetIndex index = multi.container.targetIndex;
+            int count = index.update();
+            for (int i = 0; i < count; i++) {
+                if (!index.boundsContain(i, x, y, z)) {
+                    continue;
+                }
 
-                AbstractPart part = holder.getPart();
+                AbstractPart part = index.getHolder(i).getPart();
 
                 if (part instanceof SubdividedPart<?>) {
-                    TransientPartIdentifier id = getTargetSubPart((SubdividedPart<?>) part, vec);
+                    if (relative == null) {
+                        relative = new Vec3d(x, y, z);
+                    }
+                    TransientPartIdentifier id = getTargetSubPart((SubdividedPart<?>) part, relative);
                     if (id != null) {
                         return id;
                     }
                 }
 
-                if (doesContain(part, vec)) {
+                if (index.contains(i, x, y, z)) {
                     return new TransientPartIdentifier(part);
                 }
             }
@@ -677,16 +707,6 @@ public class MultipartBlock extends Block
         return null;
     }
 
-    static boolean doesContain(AbstractPart part, Vec3d vec) {
-        VoxelShape shape = part.getOutlineShape();
-        for (Box box : shape.getBoundingBoxes()) {
-            if (box.expand(0.01).contains(vec)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Nullable
     private static <Sub> TransientPartIdentifier getTargetSubPart(SubdividedPart<Sub> part, Vec3d vec) {
         Sub subpart = part.getTargetedSubpart(vec);
@@ -745,6 +765,12 @@ public class MultipartBlock extends Block
         if (target == null) {
             return VoxelShapes.empty();
         }
+        return getTargetOutline(target, hitVec);
+    }
+
+    /** @return The (potentially dynamic) outline shape of the given target, which must have been returned by
+     *         {@link #getMultipartTarget(BlockState, BlockView, BlockPos, Vec3d)} for the same hit vector. */
+    public VoxelShape getTargetOutline(TransientPartIdentifier target, Vec3d hitVec) {
         float partialTicks = LibMultiPart.partialTickGetter.getAsFloat();
         if (target.extra instanceof IdSubPart<?>) {
             VoxelShape sub = getSubpartShape((IdSubPart<?>) target.extra, hitVec, partialTicks);
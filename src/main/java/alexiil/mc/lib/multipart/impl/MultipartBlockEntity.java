@@ -8,12 +8,11 @@
 package alexiil.mc.lib.multipart.impl;
 
 import java.util.Collection;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import com.google.common.collect.ImmutableList;
-
 import net.fabricmc.fabric.api.rendering.data.v1.RenderAttachmentBlockEntity;
 
 import net.minecraft.block.BlockState;
@@ -28,6 +27,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.DirectionTransformation;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
 
 import alexiil.mc.lib.net.NetIdDataK;
 import alexiil.mc.lib.net.NetIdDataK.IMsgDataWriterK;
@@ -42,10 +42,10 @@ import alexiil.mc.lib.attributes.AttributeList;
 import alexiil.mc.lib.attributes.AttributeProviderBlockEntity;
 import alexiil.mc.lib.attributes.mixin.api.UnloadableBlockEntity;
 
-import alexiil.mc.lib.multipart.api.event.NeighbourStateUpdateEvent;
-import alexiil.mc.lib.multipart.api.event.NeighbourUpdateEvent;
-import alexiil.mc.lib.multipart.api.render.PartModelKey;
+import alexiil.mc.lib.multipart.api.misc.ConnectionIndependentWriter;
+import alexiil.mc.lib.multipart.impl.WatchingConnections.PlayerConnection;
 import alexiil.mc.lib.multipart.impl.client.PartModelData;
+import alexiil.mc.lib.multipart.mixin.impl.WorldChunkAccessor;
 
 public class MultipartBlockEntity extends BlockEntity
     implements UnloadableBlockEntity, RenderAttachmentBlockEntity, BlockEntityInitialData,
@@ -63,6 +63,10 @@ public class MultipartBlockEntity extends BlockEntity
 
     PartContainer container;
 
+    /** True if this has been removed from the world's block entity ticking list, because nothing in the
+     * {@link #container} needs to tick. */
+    private boolean isDormant = false;
+
     public MultipartBlockEntity(BlockPos pos, BlockState state) {
         super(LibMultiPart.BLOCK_ENTITY, pos, state);
         container = new PartContainer(this, state.isOf(LibMultiPart.BLOCK) ? state.get(MultipartBlock.TRANSFORMATION) : DirectionTransformation.IDENTITY);
@@ -189,13 +193,9 @@ public class MultipartBlockEntity extends BlockEntity
         if (isClientWorld()) {
             netId.send(getClientConnection(), obj);
         } else if (isServerWorld()) {
-            for (PlayerEntity player : getPlayersWatching()) {
-                if (player == except) {
-                    continue;
-                }
-                ActiveMinecraftConnection connection = getPlayerConnection(player);
-                if (connection != null) {
-                    netId.send(connection, obj);
+            for (PlayerConnection watcher : WatchingConnections.get(this)) {
+                if (watcher.player != except && !watcher.player.isDisconnected()) {
+                    netId.send(watcher.connection, obj);
                 }
             }
         }
@@ -208,13 +208,14 @@ public class MultipartBlockEntity extends BlockEntity
         if (isClientWorld()) {
             netId.send(getClientConnection(), obj, writer);
         } else if (isServerWorld()) {
-            for (PlayerEntity player : getPlayersWatching()) {
-                if (player == except) {
-                    continue;
-                }
-                ActiveMinecraftConnection connection = getPlayerConnection(player);
-                if (connection != null) {
-                    netId.send(connection, obj, writer);
+            List<PlayerConnection> watchers = WatchingConnections.get(this);
+            IMsgDataWriterK<T> shared = writer;
+            if (LibMultiPart.SHARE_ENCODING && watchers.size() > 1 && writer instanceof ConnectionIndependentWriter) {
+                shared = new SharedDataWriter<>((ConnectionIndependentWriter<T>) writer);
+            }
+            for (PlayerConnection watcher : watchers) {
+                if (watcher.player != except && !watcher.player.isDisconnected()) {
+                    netId.send(watcher.connection, obj, shared);
                 }
             }
         }
@@ -222,38 +223,55 @@ public class MultipartBlockEntity extends BlockEntity
 
     @Override
     public PartModelData getRenderAttachmentData() {
-        ImmutableList.Builder<PartModelKey> list = ImmutableList.builder();
-        for (PartHolder holder : container.parts) {
-            PartModelKey key = holder.part.getModelKey();
-            if (key != null) {
-                list.add(key);
-            }
-        }
-        ImmutableList<PartModelKey> built = list.build();
-        // Refresh this, just to be on the safe side.
-        container.partModelKeys = built;
-        return new PartModelData(
-            container.getCullingShape(), container.getCollisionShape(), container.getOutlineShape(),
-            container.getSidesShape(), built
-        );
+        return container.getSnapshot().getRenderData();
     }
 
     // Events
 
     public void tick() {
+        // Minecraft re-registers our ticker whenever the BlockState changes, so we might not actually be dormant
+        isDormant = false;
         container.tick();
     }
 
+    /** Removes this from (or re-adds this to) the world's list of ticking block entities.
+     * <p>
+     * A dormant block entity will only start ticking again if this is called with false, or if minecraft re-registers
+     * the ticker itself (for example when the BlockState changes). */
+    void setDormant(boolean dormant) {
+        if (isDormant == dormant || world == null || isRemoved()) {
+            return;
+        }
+        // This can be called while our chunk is loading, so it mustn't (synchronously) load or wait for the chunk
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4, false);
+        if (chunk == null) {
+            if (!dormant) {
+                // The chunk will register our ticker when it finishes loading
+                isDormant = false;
+            }
+            return;
+        }
+        if (chunk.getBlockEntity(pos, WorldChunk.CreationType.CHECK) != this) {
+            return;
+        }
+        isDormant = dormant;
+        if (dormant) {
+            ((WorldChunkAccessor) chunk).callRemoveBlockEntityTicker(pos);
+        } else {
+            ((WorldChunkAccessor) chunk).callUpdateTicker(this);
+        }
+    }
+
     @Override
     public void addAllAttributes(AttributeList<?> list) {
         container.addAllAttributes(list);
     }
 
     public void onNeighbourUpdate(BlockPos otherPos) {
-        container.fireEvent(new NeighbourUpdateEvent(otherPos));
+        container.onNeighbourUpdate(otherPos);
     }
 
     public void onNeighbourStateUpdate(Direction direction, BlockPos neighborPos, BlockState neighborState) {
-        container.fireEvent(new NeighbourStateUpdateEvent(direction, neighborPos, neighborState));
+        container.onNeighbourStateUpdate(direction, neighborPos, neighborState);
     }
 }
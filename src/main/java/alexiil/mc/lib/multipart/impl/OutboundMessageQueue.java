@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+import net.minecraft.entity.player.PlayerEntity;
+
+import alexiil.mc.lib.net.NetIdTyped;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+
+/** Coalesces the idempotent messages that a server-side {@link PartContainer} sends within a single tick:
+ * {@link PartContainer#NET_REDRAW}, {@link PartContainer#NET_RECALCULATE_SHAPE}, and
+ * {@link AbstractPart#NET_RENDER_DATA} (when sent with the default writer). Duplicate messages are dropped, and only
+ * the latest render data is written for each part, as the writer is only called when the queue is flushed.
+ * <p>
+ * Queued messages are sent in the order they were queued, except that a message which is queued again is moved to
+ * the position of it's latest copy. The queue is flushed at the end of every server tick, and also before the
+ * container sends any other message or changes it's list of parts, so those are never reordered relative to the
+ * queued messages. (LibNetworkStack already merges every message sent to a player within a tick into a single
+ * packet). */
+final class OutboundMessageQueue {
+
+    /** Every queue with pending messages. Only accessed from the server thread. */
+    private static final ReferenceLinkedOpenHashSet<OutboundMessageQueue> PENDING = new ReferenceLinkedOpenHashSet<>();
+
+    final PartContainer container;
+
+    /** Every queued message, in the order they will be sent: either {@link PartContainer#NET_REDRAW},
+     * {@link PartContainer#NET_RECALCULATE_SHAPE}, or the {@link AbstractPart} to send render data for. */
+    private final ReferenceLinkedOpenHashSet<Object> queued = new ReferenceLinkedOpenHashSet<>();
+
+    /** Sends a single queued message. This is {@link #send(Object)}, except in tests. */
+    private final Consumer<Object> sender;
+    private boolean isFlushing = false;
+
+    OutboundMessageQueue(PartContainer container) {
+        this.container = container;
+        this.sender = this::send;
+    }
+
+    OutboundMessageQueue(PartContainer container, Consumer<Object> sender) {
+        this.container = container;
+        this.sender = sender;
+    }
+
+    static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            flushAll();
+            WatchingConnections.clear();
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PENDING.clear();
+            WatchingConnections.clear();
+        });
+    }
+
+    private static void flushAll() {
+        while (!PENDING.isEmpty()) {
+            PENDING.removeFirst().flush();
+        }
+    }
+
+    /** Only called on the server.
+     * 
+     * @return True if the given message was queued, false if it needs to be sent immediately (after calling
+     *         {@link #flush()}). */
+    <T> boolean offer(@Nullable PlayerEntity except, T obj, NetIdTyped<T> netId) {
+        if (except != null || isFlushing) {
+            return false;
+        }
+        if ((netId == PartContainer.NET_REDRAW || netId == PartContainer.NET_RECALCULATE_SHAPE) && obj == container) {
+            queued.addAndMoveToLast(netId);
+        } else if (netId == AbstractPart.NET_RENDER_DATA && obj instanceof AbstractPart part
+            && part.holder instanceof PartHolder holder && holder.container == container) {
+            queued.addAndMoveToLast(part);
+        } else {
+            return false;
+        }
+        PENDING.add(this);
+        return true;
+    }
+
+    /** Sends every queued message. */
+    void flush() {
+        if (isFlushing || queued.isEmpty()) {
+            return;
+        }
+        PENDING.remove(this);
+        isFlushing = true;
+        try {
+            while (!queued.isEmpty()) {
+                sender.accept(queued.removeFirst());
+            }
+        } finally {
+            isFlushing = false;
+        }
+    }
+
+    private void send(Object message) {
+        if (message == PartContainer.NET_REDRAW) {
+            container.sendNetworkUpdate(container, PartContainer.NET_REDRAW);
+        } else if (message == PartContainer.NET_RECALCULATE_SHAPE) {
+            container.sendNetworkUpdate(container, PartContainer.NET_RECALCULATE_SHAPE);
+        } else {
+            AbstractPart part = (AbstractPart) message;
+            // The queue is always flushed before a part is removed
+            assert ((PartHolder) part.holder).container == container;
+            container.sendNetworkUpdate(part, AbstractPart.NET_RENDER_DATA);
+        }
+    }
+
+    /** Drops every queued message, for when the container is no longer in the world. */
+    void discard() {
+        queued.clear();
+        PENDING.remove(this);
+    }
+}
@@ -9,7 +9,10 @@ package alexiil.mc.lib.multipart.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -19,27 +22,34 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableList;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtList;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.state.property.Properties;
 import net.minecraft.util.BlockMirror;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.Util;
 import net.minecraft.util.function.BooleanBiFunction;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.DirectionTransformation;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.WorldChunk;
 
 import alexiil.mc.lib.net.IMsgReadCtx;
 import alexiil.mc.lib.net.IMsgWriteCtx;
@@ -55,16 +65,26 @@ import alexiil.mc.lib.net.ParentNetIdSingle;
 import alexiil.mc.lib.attributes.AttributeList;
 
 import alexiil.mc.lib.multipart.api.AbstractPart;
+import alexiil.mc.lib.multipart.api.BatchTickedPart;
 import alexiil.mc.lib.multipart.api.MultipartContainer;
 import alexiil.mc.lib.multipart.api.MultipartEventBus;
 import alexiil.mc.lib.multipart.api.MultipartHolder;
+import alexiil.mc.lib.multipart.api.event.NeighbourStateUpdateEvent;
+import alexiil.mc.lib.multipart.api.event.NeighbourUpdateEvent;
+import alexiil.mc.lib.multipart.api.event.NeighboursChangedEvent;
 import alexiil.mc.lib.multipart.api.event.PartAddedEvent;
 import alexiil.mc.lib.multipart.api.event.PartContainerState;
+import alexiil.mc.lib.multipart.api.event.PartEventEntityCollide;
+import alexiil.mc.lib.multipart.api.event.PartListenerAdded;
 import alexiil.mc.lib.multipart.api.event.PartOfferedEvent;
 import alexiil.mc.lib.multipart.api.event.PartPostTransformEvent;
+import alexiil.mc.lib.multipart.api.event.PartPrecipitationTickEvent;
 import alexiil.mc.lib.multipart.api.event.PartPreTransformEvent;
 import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent;
 import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent.PartRedstonePowerEventFactory;
+import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent.PartRedstonePowerEventResetter;
+import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent.PartStrongRedstonePowerEvent;
+import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent.PartWeakRedstonePowerEvent;
 import alexiil.mc.lib.multipart.api.event.PartRemovedEvent;
 import alexiil.mc.lib.multipart.api.event.PartTickEvent;
 import alexiil.mc.lib.multipart.api.event.PartTransformCheckEvent;
@@ -162,6 +182,13 @@ public class PartContainer implements MultipartContainer {
         // Just to call clinit above
     }
 
+    static final int SHAPE_FULL = 0;
+    static final int SHAPE_COLLISION = 1;
+    static final int SHAPE_CULLING = 2;
+    static final int SHAPE_OUTLINE = 3;
+    static final int SHAPE_SIDES = 4;
+    static final int SHAPE_COUNT = 5;
+
     public final SimpleEventBus eventBus = new SimpleEventBus(this);
     public final SimplePropertyContainer properties = new SimplePropertyContainer(this);
 
@@ -169,12 +196,23 @@ public class PartContainer implements MultipartContainer {
     final Long2ObjectMap<PartHolder> partsByUid = new Long2ObjectOpenHashMap<>();
 
     MultipartBlockEntity blockEntity;
-    VoxelShape cachedShape = null;
-    VoxelShape cachedCollisionShape = null;
-    VoxelShape cachedCullingShape = null;
-    VoxelShape cachedOutlineShape = null;
-    VoxelShape cachedSidesShape = null;
+
+    /** The chunk that this container is stored in by {@link ContainerLookup}, or null if it isn't stored anywhere. */
+    @Nullable
+    WorldChunk lookupChunk;
+    /** Incremented whenever any part's shape snapshot changes, to invalidate {@link PartHolder#leftoverShape}. (The
+     * combined shapes of every part are cached by the current {@link #snapshot} instead). */
+    int shapeVersion = 0;
+
+    /** Used by {@link #getPart(Vec3d)} and {@link MultipartBlock#getMultipartTarget} to find parts without
+     * allocating. */
+    final PartTargetIndex targetIndex = new PartTargetIndex(this);
+
     boolean havePropertiesChanged = false;
+
+    /** True if a property which is stored in our {@link BlockState} has changed since the last tick. These are all
+     * applied together (with a single setBlockState call) at the end of the next {@link #tick()}. */
+    private boolean isBlockStateDirty = false;
     boolean hasTicked = false;
 
     /** Used by {@link #setCachedState(BlockState)} to determine how the BlockState's transformation has changed.
@@ -208,6 +246,29 @@ public class PartContainer implements MultipartContainer {
 
     ImmutableList<PartModelKey> partModelKeys = ImmutableList.of();
 
+    /** Coalesces redraw, shape and render data messages until the end of the tick. */
+    final OutboundMessageQueue outboundQueue = new OutboundMessageQueue(this);
+
+    /** The current {@link ContainerSnapshot}, for use by other threads. */
+    private volatile ContainerSnapshot snapshot = ContainerSnapshot.EMPTY;
+
+    /** Only created if {@link LibMultiPart#REUSE_EVENTS} is enabled. */
+    private ReusableEvents reusableEvents;
+
+    /** Every part in this container that is currently registered with this world's {@link PartTickScheduler}. */
+    private final List<BatchTickedPart> scheduledParts = new ArrayList<>();
+
+    /** The positions to fire in the next {@link NeighboursChangedEvent}, or null if there isn't one pending. */
+    private Set<BlockPos> pendingNeighbourPositions;
+
+    /** The sides to fire in the next {@link NeighboursChangedEvent}. */
+    private final Set<Direction> pendingNeighbourSides = EnumSet.noneOf(Direction.class);
+
+    /** The static redstone power emitted from each side, indexed by {@link #redstoneIndex(Direction, boolean)}. This
+     * is a copy of the {@link RedstonePowerProperty} values (with the weak power already including the strong power),
+     * kept up-to-date by {@link #onPropertyChanged(MultipartProperty, Object, Object)}. */
+    private final byte[] redstonePower = new byte[12];
+
     public PartContainer(MultipartBlockEntity blockEntity, DirectionTransformation initialTransformation) {
         assert blockEntity != null : "The given blockEntity was null!";
         this.blockEntity = blockEntity;
@@ -327,13 +388,8 @@ public class PartContainer implements MultipartContainer {
 
     @Override
     public AbstractPart getPart(Vec3d vec) {
-        for (PartHolder holder : parts) {
-            AbstractPart part = holder.part;
-            if (MultipartBlock.doesContain(part, vec)) {
-                return part;
-            }
-        }
-        return null;
+        PartHolder holder = targetIndex.getHolder(vec.x, vec.y, vec.z);
+        return holder == null ? null : holder.part;
     }
 
     @Override
@@ -373,48 +429,95 @@ public class PartContainer implements MultipartContainer {
         return holder;
     }
 
-    boolean canAdd(PartHolder offered, boolean respectEntityBBs) {
-        VoxelShape currentShape = getCurrentShape();
-        for (PartHolder holder : parts) {
-            AbstractPart part = holder.part;
-
-            VoxelShape shapeOther = part.getShape();
-            VoxelShape shapeOffered = offered.part.getShape();
-
-            // Basic overlap checking
-            if (!VoxelShapes.matchesAnywhere(shapeOther, shapeOffered, BooleanBiFunction.AND)) {
-                continue;
+    @Override
+    public MultiPartOffer offerNewParts(List<MultipartCreator> creators, boolean respectEntityBBs) {
+        List<PartHolder> accepted = new ArrayList<>(creators.size());
+        for (MultipartCreator creator : creators) {
+            PartHolder holder = new PartHolder(this, creator);
+            if (!canAdd(holder, accepted, respectEntityBBs)) {
+                return null;
+            }
+            accepted.add(holder);
+        }
+        List<MultipartHolder> holders = Collections.unmodifiableList(accepted);
+        return new MultiPartOffer() {
+            @Override
+            public List<MultipartHolder> getHolders() {
+                return holders;
             }
 
-            // Complete containment checking
-            if (!VoxelShapes.matchesAnywhere(currentShape, shapeOffered, BooleanBiFunction.ONLY_SECOND)) {
-                return false;
+            @Override
+            public void apply() {
+                for (PartHolder holder : accepted) {
+                    addPartInternal(holder);
+                }
             }
+        };
+    }
 
-            VoxelShape leftoverShape = shapeOther;
-            for (PartHolder h2 : parts) {
-                if (h2.part != part) {
-                    VoxelShape h2shape = h2.part.getShape();
-                    if (!h2shape.getBoundingBox().intersects(leftoverShape.getBoundingBox())) {
-                        continue;
-                    }
-                    leftoverShape = VoxelShapes.combine(leftoverShape, h2shape, BooleanBiFunction.ONLY_FIRST);
-                    if (leftoverShape.isEmpty()) {
-                        return false;
+    boolean canAdd(PartHolder offered, boolean respectEntityBBs) {
+        return canAdd(offered, Collections.emptyList(), respectEntityBBs);
+    }
+
+    /** @param pending Parts which have already been accepted by {@link #offerNewParts(List, boolean)}, but haven't
+     *            been added yet. These are treated as if they had already been added. */
+    private boolean canAdd(PartHolder offered, List<PartHolder> pending, boolean respectEntityBBs) {
+        VoxelShape shapeOffered = offered.getShapeSnapshot()[SHAPE_FULL];
+        Box offeredBounds = offered.shapeBounds;
+
+        if (offeredBounds != null) {
+            // Computed lazily, as most offers don't overlap with any parts
+            VoxelShape occupied = null;
+            for (int i = 0; i < parts.size() + pending.size(); i++) {
+                boolean isPending = i >= parts.size();
+                PartHolder holder = isPending ? pending.get(i - parts.size()) : parts.get(i);
+
+                // Broad phase
+                Box otherBounds = holder.getShapeBounds();
+                if (otherBounds == null || !otherBounds.intersects(offeredBounds)) {
+                    continue;
+                }
+
+                // Basic overlap checking
+                VoxelShape shapeOther = holder.getShapeSnapshot()[SHAPE_FULL];
+                if (!VoxelShapes.matchesAnywhere(shapeOther, shapeOffered, BooleanBiFunction.AND)) {
+                    continue;
+                }
+
+                // Complete containment checking
+                if (occupied == null) {
+                    occupied = getCurrentShape();
+                    for (PartHolder p : pending) {
+                        occupied = ShapeCache.union(occupied, p.getShapeSnapshot()[SHAPE_FULL]);
                     }
                 }
-            }
-            if (!VoxelShapes.matchesAnywhere(leftoverShape, shapeOffered, BooleanBiFunction.ONLY_FIRST)) {
-                return false;
-            }
+                if (!VoxelShapes.matchesAnywhere(occupied, shapeOffered, BooleanBiFunction.ONLY_SECOND)) {
+                    return false;
+                }
 
-            // Check with each part for overlaps
-            if (!part.canOverlapWith(offered.part) && !offered.part.canOverlapWith(part)) {
-                return false;
+                VoxelShape leftoverShape;
+                if (isPending) {
+                    leftoverShape = subtractOverlapping(shapeOther, holder, parts);
+                } else {
+                    leftoverShape = getLeftoverShape(holder);
+                }
+                leftoverShape = subtractOverlapping(leftoverShape, holder, pending);
+                if (leftoverShape.isEmpty()) {
+                    return false;
+                }
+                if (!VoxelShapes.matchesAnywhere(leftoverShape, shapeOffered, BooleanBiFunction.ONLY_FIRST)) {
+                    return false;
+                }
+
+                // Check with each part for overlaps
+                AbstractPart part = holder.part;
+                if (!part.canOverlapWith(offered.part) && !offered.part.canOverlapWith(part)) {
+                    return false;
+                }
             }
         }
 
-        VoxelShape collisionShape = offered.getPart().getCollisionShape();
+        VoxelShape collisionShape = offered.getShapeSnapshot()[SHAPE_COLLISION];
         if (respectEntityBBs && !collisionShape.isEmpty()) {
             BlockPos pos = getMultipartPos();
             VoxelShape offsetShape = collisionShape.offset(pos.getX(), pos.getY(), pos.getZ());
@@ -430,16 +533,21 @@ public class PartContainer implements MultipartContainer {
 
     void addPartInternal(PartHolder holder) {
         assert holder.uniqueId == MultipartHolder.NOT_ADDED_UNIQUE_ID;
+        // Queued messages refer to parts by their index, so they must be sent before the indices change
+        outboundQueue.flush();
         holder.uniqueId = nextId++;
         parts.add(holder);
         PartHolder prev = partsByUid.put(holder.uniqueId, holder);
         assert prev == null : "Already contained a part with the given ID";
         holder.part.onAdded(eventBus);
+        startBatchTicking(holder.part);
         // Send the new part information *now* because other parts have a chance to send network packets
         sendNetworkUpdate(PartContainer.this, NET_ADD_PART, (p, buffer, ctx) -> {
             holder.writeCreation(buffer, ctx);
         });
-        recalculateShape();
+        VoxelShape[] combined = snapshot.copyShapes();
+        addPartShapes(combined, holder, true);
+        publishSnapshot(combined);
         eventBus.fireEvent(new PartAddedEvent(holder.part));
         updateOwnNeighbours();
         markChunkDirty();
@@ -460,8 +568,11 @@ public class PartContainer implements MultipartContainer {
             );
         }
         holder.part.onAdded(eventBus);
+        startBatchTicking(holder.part);
         eventBus.fireEvent(new PartAddedEvent(holder.part));
-        recalculateShape();
+        VoxelShape[] combined = snapshot.copyShapes();
+        addPartShapes(combined, holder, true);
+        publishSnapshot(combined);
         redrawIfChanged();
     }
 
@@ -533,10 +644,39 @@ public class PartContainer implements MultipartContainer {
         return toRemove;
     }
 
+    /** @return The part of the given (existing) part's shape which isn't covered by any other existing part. This is
+     * cached in the holder until any part's shape changes. */
+    private VoxelShape getLeftoverShape(PartHolder holder) {
+        if (holder.leftoverVersion != shapeVersion || holder.leftoverShape == null) {
+            holder.leftoverShape = subtractOverlapping(holder.getShapeSnapshot()[SHAPE_FULL], holder, parts);
+            holder.leftoverVersion = shapeVersion;
+        }
+        return holder.leftoverShape;
+    }
+
+    /** @return The given shape, minus the shape of every holder in others (apart from self). */
+    private static VoxelShape subtractOverlapping(VoxelShape shape, PartHolder self, List<PartHolder> others) {
+        for (PartHolder other : others) {
+            if (shape.isEmpty()) {
+                return shape;
+            }
+            if (other == self) {
+                continue;
+            }
+            Box otherBounds = other.getShapeBounds();
+            if (otherBounds == null || !otherBounds.intersects(shape.getBoundingBox())) {
+                continue;
+            }
+            shape = VoxelShapes.combine(shape, other.getShapeSnapshot()[SHAPE_FULL], BooleanBiFunction.ONLY_FIRST);
+        }
+        return shape;
+    }
+
     private void removeSingle(int index) {
         if (LibMultiPart.DEBUG) {
             log("removeSingle(" + index + ")");
         }
+        outboundQueue.flush();
 
         PartHolder removed = parts.remove(index);
         assert removed != null;
@@ -551,8 +691,13 @@ public class PartContainer implements MultipartContainer {
 
         // Now inform everything else that it was removed
         eventBus.removeListeners(removed.part);
+        stopBatchTicking(removed.part);
         removed.part.onRemoved();
+        properties.removeChangeListeners(removed.part);
         properties.clearValues(removed.part);
+        VoxelShape[] combined = snapshot.copyShapes();
+        removePartShapes(combined, removed);
+        publishSnapshot(combined);
         eventBus.fireEvent(new PartRemovedEvent(removed.part));
 
         postRemovePart();
@@ -568,7 +713,6 @@ public class PartContainer implements MultipartContainer {
 
             blockEntity.world().removeBlock(getMultipartPos(), false);
         } else {
-            recalculateShape();
             updateOwnNeighbours();
             markChunkDirty();
         }
@@ -590,9 +734,12 @@ public class PartContainer implements MultipartContainer {
         assert removedById == removed;
         eventBus.removeListeners(removed.part);
         removed.part.onRemoved();
+        properties.removeChangeListeners(removed.part);
         properties.clearValues(removed.part);
+        VoxelShape[] combined = snapshot.copyShapes();
+        removePartShapes(combined, removed);
+        publishSnapshot(combined);
         eventBus.fireEvent(new PartRemovedEvent(removed.part));
-        recalculateShape();
         redrawIfChanged();
     }
 
@@ -611,8 +758,13 @@ public class PartContainer implements MultipartContainer {
             assert removedById == holder;
         }
 
-        for (PartHolder holder : removedHolders) {
-            eventBus.removeListeners(holder.part);
+        eventBus.startMutationBatch();
+        try {
+            for (PartHolder holder : removedHolders) {
+                eventBus.removeListeners(holder.part);
+            }
+        } finally {
+            eventBus.endMutationBatch();
         }
 
         for (PartHolder holder : removedHolders) {
@@ -620,6 +772,7 @@ public class PartContainer implements MultipartContainer {
         }
 
         for (PartHolder holder : removedHolders) {
+            properties.removeChangeListeners(holder.part);
             properties.clearValues(holder.part);
         }
     }
@@ -628,6 +781,7 @@ public class PartContainer implements MultipartContainer {
         if (LibMultiPart.DEBUG) {
             log("removeMultiple(" + Arrays.toString(indices) + ")");
         }
+        outboundQueue.flush();
 
         Arrays.sort(indices);
         ArrayUtil.reverse(indices);
@@ -650,8 +804,14 @@ public class PartContainer implements MultipartContainer {
             });
         }
 
-        for (PartHolder holder : holders) {
-            eventBus.removeListeners(holder.part);
+        eventBus.startMutationBatch();
+        try {
+            for (PartHolder holder : holders) {
+                eventBus.removeListeners(holder.part);
+                stopBatchTicking(holder.part);
+            }
+        } finally {
+            eventBus.endMutationBatch();
         }
 
         for (PartHolder holder : holders) {
@@ -659,15 +819,21 @@ public class PartContainer implements MultipartContainer {
         }
 
         for (PartHolder holder : holders) {
+            properties.removeChangeListeners(holder.part);
             properties.clearValues(holder.part);
         }
 
+        VoxelShape[] combined = snapshot.copyShapes();
+        for (PartHolder holder : holders) {
+            removePartShapes(combined, holder);
+        }
+        publishSnapshot(combined);
+
         for (PartHolder holder : holders) {
             fireEvent(new PartRemovedEvent(holder.part));
         }
 
         if (isClientWorld()) {
-            recalculateShape();
             redrawIfChanged();
         } else {
             postRemovePart();
@@ -695,72 +861,141 @@ public class PartContainer implements MultipartContainer {
         }
     }
 
+    /** @return A number which changes whenever any part's shape changes (or parts are added or removed). */
+    public int getShapeVersion() {
+        return shapeVersion;
+    }
+
     @Override
     public VoxelShape getCurrentShape() {
-        if (cachedShape == null) {
-            cachedShape = VoxelShapes.empty();
-            for (PartHolder holder : parts) {
-                cachedShape = VoxelShapes.union(cachedShape, holder.part.getShape());
-            }
-        }
-        return cachedShape;
+        return getCachedShape(SHAPE_FULL);
     }
 
     @Override
     public VoxelShape getCollisionShape() {
-        if (cachedCollisionShape == null) {
-            cachedCollisionShape = VoxelShapes.empty();
-            for (PartHolder holder : parts) {
-                cachedCollisionShape = VoxelShapes.union(cachedCollisionShape, holder.part.getCollisionShape());
-            }
-        }
-        return cachedCollisionShape;
+        return getCachedShape(SHAPE_COLLISION);
     }
 
     public VoxelShape getCullingShape() {
-        if (cachedCullingShape == null) {
-            cachedCullingShape = VoxelShapes.empty();
-            for (PartHolder holder : parts) {
-                cachedCullingShape = VoxelShapes.union(cachedCullingShape, holder.part.getCullingShape());
-            }
-        }
-        return cachedCullingShape;
+        return getCachedShape(SHAPE_CULLING);
     }
 
     @Override
     public VoxelShape getOutlineShape() {
-        if (cachedOutlineShape == null) {
-            cachedOutlineShape = VoxelShapes.empty();
-            for (PartHolder holder : parts) {
-                cachedOutlineShape = VoxelShapes.union(cachedOutlineShape, holder.part.getOutlineShape());
+        return getCachedShape(SHAPE_OUTLINE);
+    }
+
+    public VoxelShape getSidesShape() {
+        return getCachedShape(SHAPE_SIDES);
+    }
+
+    private VoxelShape getCachedShape(int type) {
+        return snapshot.getShape(type);
+    }
+
+    /** @return The shape of the given type (one of the SHAPE_ constants) from the given part. */
+    static VoxelShape getPartShape(AbstractPart part, int type) {
+        switch (type) {
+            case SHAPE_FULL:
+                return part.getShape();
+            case SHAPE_COLLISION:
+                return part.getCollisionShape();
+            case SHAPE_CULLING:
+                return part.getCullingShape();
+            case SHAPE_OUTLINE:
+                return part.getOutlineShape();
+            case SHAPE_SIDES:
+                return part.getSidesShape();
+            default:
+                throw new IllegalArgumentException("Unknown shape type " + type);
+        }
+    }
+
+    /** Unions the given part's shapes into every combined shape, without recomputing any of them. This is always safe
+     * to call, even if the part was already included in the combined shapes, as union is idempotent.
+     * 
+     * @param combined The combined shapes for the next snapshot, from {@link ContainerSnapshot#copyShapes()}. Null
+     *            entries haven't been computed, and are left alone.
+     * @param isNewPart True if the part has just been added, so any existing snapshot (for example from
+     *            {@link #canAdd(PartHolder, boolean)}) isn't included in the combined shapes yet. */
+    private void addPartShapes(VoxelShape[] combined, PartHolder holder, boolean isNewPart) {
+        VoxelShape[] previous = isNewPart ? null : holder.shapeSnapshot;
+        VoxelShape[] shapes = holder.takeShapeSnapshot();
+        shapeVersion++;
+        for (int i = 0; i < SHAPE_COUNT; i++) {
+            VoxelShape cached = combined[i];
+            boolean wasEmpty = previous == null || previous[i].isEmpty();
+            if (cached == null || (previous != null && previous[i] == shapes[i])) {
+                continue;
             }
-            if (cachedOutlineShape.isEmpty()) {
-                cachedOutlineShape = VoxelShapes.empty();
+            if (shapes[i].isEmpty() && wasEmpty) {
+                continue;
+            }
+            if (wasEmpty) {
+                combined[i] = ShapeCache.union(cached, shapes[i]);
+            } else {
+                // We can't remove the old shape from the union, so it has to be completely recomputed
+                combined[i] = null;
             }
         }
-        return cachedOutlineShape;
     }
 
-    public VoxelShape getSidesShape() {
-        if (cachedSidesShape == null) {
-            cachedSidesShape = VoxelShapes.empty();
-            for (PartHolder holder : parts) {
-                cachedSidesShape = VoxelShapes.union(cachedSidesShape, holder.part.getSidesShape());
-            }
-            if (cachedSidesShape.isEmpty()) {
-                cachedSidesShape = VoxelShapes.empty();
+    /** Clears every combined shape that the given (removed) part contributed to. */
+    private void removePartShapes(VoxelShape[] combined, PartHolder holder) {
+        VoxelShape[] shapes = holder.shapeSnapshot;
+        holder.shapeSnapshot = null;
+        shapeVersion++;
+        if (shapes == null) {
+            // Then it can't have been included in any of the combined shapes
+            return;
+        }
+        for (int i = 0; i < SHAPE_COUNT; i++) {
+            if (!shapes[i].isEmpty()) {
+                combined[i] = null;
             }
         }
-        return cachedSidesShape;
+    }
+
+    /** Forgets every part's snapshot, and publishes a snapshot without any combined shapes. Used when the whole list
+     * of parts is replaced. */
+    private void clearShapeCaches() {
+        shapeVersion++;
+        for (PartHolder holder : parts) {
+            holder.shapeSnapshot = null;
+        }
+        publishSnapshot(new VoxelShape[SHAPE_COUNT]);
     }
 
     @Override
     public void recalculateShape() {
-        cachedShape = null;
-        cachedCollisionShape = null;
-        cachedCullingShape = null;
-        cachedOutlineShape = null;
-        cachedSidesShape = null;
+        if (!snapshot.hasComputedShapes()) {
+            // Nothing to update, so just make sure every snapshot is re-taken when it's needed
+            clearShapeCaches();
+        } else {
+            VoxelShape[] combined = snapshot.copyShapes();
+            for (PartHolder holder : parts) {
+                addPartShapes(combined, holder, false);
+            }
+            publishSnapshot(combined);
+        }
+    }
+
+    @Override
+    public void recalculateShape(AbstractPart part) {
+        if (part.holder instanceof PartHolder holder && holder.container == this && parts.contains(holder)) {
+            VoxelShape[] combined = snapshot.copyShapes();
+            if (snapshot.hasComputedShapes()) {
+                addPartShapes(combined, holder, false);
+            } else {
+                // There aren't any combined shapes to update, but the target index and leftover shapes still need to
+                // be rebuilt
+                holder.shapeSnapshot = null;
+                shapeVersion++;
+            }
+            publishSnapshot(combined);
+        } else {
+            recalculateShape();
+        }
     }
 
     @Override
@@ -792,6 +1027,7 @@ public class PartContainer implements MultipartContainer {
                 return;
             }
             partModelKeys = list;
+            publishSnapshot(snapshot.copyShapes());
             // Just to make the world always re-render even though our state hasn't changed
             blockEntity.world().scheduleBlockRerenderIfNeeded(
                 blockEntity.getPos(), Blocks.AIR.getDefaultState(), Blocks.VINE.getDefaultState()
@@ -813,6 +1049,32 @@ public class PartContainer implements MultipartContainer {
         return partModelKeys;
     }
 
+    /** @return The most recently published snapshot of this container. Unlike every other method this may be called
+     *         from any thread. */
+    public ContainerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /** Publishes a new {@link #snapshot}. This must be called (on the thread that owns this container) whenever the
+     * parts, their shapes, or their model keys change.
+     * 
+     * @param combined The combined shapes which are already known, usually taken from the previous snapshot. Null
+     *            entries are computed by the new snapshot when they are first requested. */
+    private void publishSnapshot(VoxelShape[] combined) {
+        ImmutableList.Builder<AbstractPart> list = ImmutableList.builderWithExpectedSize(parts.size());
+        for (PartHolder holder : parts) {
+            list.add(holder.part);
+        }
+        VoxelShape[][] partShapes = new VoxelShape[parts.size()][];
+        for (int i = 0; i < partShapes.length; i++) {
+            partShapes[i] = parts.get(i).getShapeSnapshot();
+        }
+        ContainerSnapshot previous = snapshot;
+        snapshot = new ContainerSnapshot(
+            list.build(), partModelKeys, partShapes, combined, previous.getComputedCullFaces()
+        );
+    }
+
     private void writeInitialRenderData(NetByteBuf buffer, IMsgWriteCtx ctx) {
         if (LibMultiPart.DEBUG) {
             log("W: NET_INITIAL_RENDER_DATA");
@@ -854,12 +1116,16 @@ public class PartContainer implements MultipartContainer {
             }
         }
         validate();
-        recalculateShape();
+        clearShapeCaches();
         redrawIfChanged();
     }
 
     @Override
     public <T> void sendNetworkUpdateExcept(PlayerEntity except, T obj, NetIdTyped<T> netId) {
+        if (blockEntity.isServerWorld() && outboundQueue.offer(except, obj, netId)) {
+            return;
+        }
+        outboundQueue.flush();
         blockEntity.sendNetworkUpdate(except, obj, netId);
     }
 
@@ -867,6 +1133,7 @@ public class PartContainer implements MultipartContainer {
     public <T> void sendNetworkUpdateExcept(
         PlayerEntity except, T obj, NetIdDataK<T> netId, IMsgDataWriterK<T> writer
     ) {
+        outboundQueue.flush();
         blockEntity.sendNetworkUpdate(except, obj, netId, writer);
     }
 
@@ -891,7 +1158,6 @@ public class PartContainer implements MultipartContainer {
         if (LibMultiPart.DEBUG) {
             log("fromNbt( " + tag + " ) {");
         }
-        recalculateShape();
 
         if (tag.contains("cachedTransformation")) {
             cachedTransformation = MultipartBlock.TRANSFORMATION.parse(tag.getString("cachedTransformation"))
@@ -966,6 +1232,7 @@ public class PartContainer implements MultipartContainer {
             // We don't need to go through unloadedInverseRequiredParts
             // because they must have been linked above
         }
+        clearShapeCaches();
 
         if (LibMultiPart.DEBUG) {
             log("}");
@@ -995,11 +1262,23 @@ public class PartContainer implements MultipartContainer {
     }
 
     /** Actually handles calling {@link AbstractPart#onAdded(MultipartEventBus)} as well as applying any not-yet-applied
-     * transformations. */
+     * transformations.
+     * <p>
+     * Every part is added inside a single {@link SimpleEventBus#startMutationBatch() mutation batch}, so the
+     * {@link PartListenerAdded} events are only fired once all of the parts have registered their listeners (rather
+     * than re-dispatching through the bus after every single listener is added). */
     private void initParts() {
         eventBus.clearListeners();
-        for (PartHolder holder : parts) {
-            holder.part.onAdded(eventBus);
+        properties.clearChangeListeners();
+        stopAllBatchTicking();
+        eventBus.startMutationBatch();
+        try {
+            for (PartHolder holder : parts) {
+                holder.part.onAdded(eventBus);
+                startBatchTicking(holder.part);
+            }
+        } finally {
+            eventBus.endMutationBatch();
         }
 
         // Now that we've (potentially) loaded from NBT, let's apply
@@ -1011,11 +1290,58 @@ public class PartContainer implements MultipartContainer {
         validated = false;
         eventBus.fireEvent(PartContainerState.INVALIDATE);
         delinkOtherBlockRequired();
+        stopAllBatchTicking();
+        outboundQueue.discard();
+        ContainerLookup.remove(this);
     }
 
     void onChunkUnload() {
         eventBus.fireEvent(PartContainerState.CHUNK_UNLOAD);
         delinkOtherBlockRequired();
+        stopAllBatchTicking();
+        outboundQueue.discard();
+        ContainerLookup.remove(this);
+    }
+
+    /** Registers the given part with the {@link PartTickScheduler} if it's a {@link BatchTickedPart} and batched
+     * ticking is enabled, or otherwise ticks it from a {@link PartTickEvent} listener. */
+    private void startBatchTicking(AbstractPart part) {
+        if (!(part instanceof BatchTickedPart ticked)) {
+            return;
+        }
+        if (LibMultiPart.BATCH_TICKS && getMultipartWorld() instanceof ServerWorld world) {
+            PartTickScheduler.get(world).add(ticked, getMultipartPos());
+            scheduledParts.add(ticked);
+        } else {
+            eventBus.addListener(part, PartTickEvent.class, event -> ticked.tickBatched());
+        }
+    }
+
+    private void stopBatchTicking(AbstractPart part) {
+        if (part instanceof BatchTickedPart ticked && scheduledParts.remove(ticked)) {
+            PartTickScheduler scheduler = getScheduler();
+            if (scheduler != null) {
+                scheduler.remove(ticked);
+            }
+        }
+    }
+
+    private void stopAllBatchTicking() {
+        if (scheduledParts.isEmpty()) {
+            return;
+        }
+        PartTickScheduler scheduler = getScheduler();
+        if (scheduler != null) {
+            for (BatchTickedPart part : scheduledParts) {
+                scheduler.remove(part);
+            }
+        }
+        scheduledParts.clear();
+    }
+
+    @Nullable
+    private PartTickScheduler getScheduler() {
+        return getMultipartWorld() instanceof ServerWorld world ? PartTickScheduler.getIfPresent(world) : null;
     }
 
     /** Checks if a transformation is valid for all parts in this container. */
@@ -1296,9 +1622,21 @@ public class PartContainer implements MultipartContainer {
             return;
         }
 
+        if (pendingNeighbourPositions != null) {
+            NeighboursChangedEvent event = new NeighboursChangedEvent(
+                Collections.unmodifiableSet(EnumSet.copyOf(pendingNeighbourSides)),
+                Collections.unmodifiableSet(pendingNeighbourPositions)
+            );
+            pendingNeighbourPositions = null;
+            pendingNeighbourSides.clear();
+            eventBus.fireEvent(event);
+        }
+
         eventBus.fireEvent(PartTickEvent.INSTANCE);
-        if (havePropertiesChanged) {
+        if (havePropertiesChanged || isBlockStateDirty) {
+            boolean fromLoad = havePropertiesChanged;
             havePropertiesChanged = false;
+            isBlockStateDirty = false;
             final BlockState oldState = getMultipartWorld().getBlockState(getMultipartPos());
             if (oldState.getBlock() != LibMultiPart.BLOCK) {
                 // The block was probably changed while we were ticking
@@ -1313,7 +1651,7 @@ public class PartContainer implements MultipartContainer {
             }
             if (state != oldState) {
                 getMultipartWorld().setBlockState(getMultipartPos(), state);
-            } else {
+            } else if (fromLoad) {
                 updateOwnNeighbours();
             }
         }
@@ -1321,21 +1659,23 @@ public class PartContainer implements MultipartContainer {
         if (!hasTicked) {
             hasTicked = true;
             linkOtherBlockRequired();
+        } else if (canBeDormant()) {
+            blockEntity.setDormant(true);
         }
     }
 
+    /** @return True if calling {@link #tick()} would have no effect, so the block entity can stop ticking. */
+    private boolean canBeDormant() {
+        return hasTicked && !havePropertiesChanged && !isBlockStateDirty && pendingNeighbourPositions == null
+            && !eventBus.hasAnyListenersFor(PartTickEvent.class);
+    }
+
     void onListenerAdded(SingleListener<?> single) {
-        // This was removed because minecraft doesn't seem to like removing a block entity while it's being ticked.
-
-        // if (single.clazz == PartTickEvent.class && !(blockEntity instanceof Tickable)) {
-        // World world = blockEntity.world();
-        // if (world.getBlockEntity(getMultipartPos()) == blockEntity) {
-        // world.setBlockEntity(getMultipartPos(), new MultipartBlockEntity.Ticking(this));
-        // LibMultiPart.LOGGER.info("Switching " + getMultiPartPos() + " from non-ticking to ticking.");
-        // } else {
-        // LibMultiPart.LOGGER.info("Failed to switch " + getMultiPartPos() + " from non-ticking to ticking!");
-        // }
-        // }
+        // Rather than swapping the block entity (which minecraft doesn't like while it's being ticked) we just
+        // re-register the existing block entity's ticker.
+        if (single.clazz.isAssignableFrom(PartTickEvent.class)) {
+            blockEntity.setDormant(false);
+        }
     }
 
     void onListenerRemoved(SingleListener<?> single) {
@@ -1344,48 +1684,116 @@ public class PartContainer implements MultipartContainer {
 
     <T> void onPropertyChanged(MultipartProperty<T> property, T old, T current) {
 
+        if (property instanceof RedstonePowerProperty powerProperty) {
+            updateRedstonePower(powerProperty.side);
+        }
+
         if (!hasTicked) {
             // This can happen when loading
             havePropertiesChanged = true;
             return;
         }
 
-        if (property == MultipartProperties.CAN_EMIT_REDSTONE) {
-            BlockState state = getMultipartWorld().getBlockState(getMultipartPos());
-            state = state.with(MultipartBlock.EMITS_REDSTONE, (Boolean) current);
-            getMultipartWorld().setBlockState(getMultipartPos(), state);
+        if (isBlockStateProperty(property)) {
+            // Parts often change several of these at once (or the same one several times),
+            // so they are all written to the world at the end of our next tick.
+            if (!isBlockStateDirty) {
+                isBlockStateDirty = true;
+                blockEntity.setDormant(false);
+            }
             return;
         }
 
-        if (property == MultipartProperties.LIGHT_VALUE) {
-            BlockState state = getMultipartWorld().getBlockState(getMultipartPos());
-            state = state.with(MultipartBlock.LUMINANCE, (Integer) current);
-            getMultipartWorld().setBlockState(getMultipartPos(), state);
+        if (property instanceof RedstonePowerProperty powerProperty) {
+            // Only the block on the side that changed can see the new power (or, for strong power,
+            // anything that block passes it on to) so there's no need to update every neighbour.
+            World world = getMultipartWorld();
+            BlockPos pos = getMultipartPos();
+            Direction side = powerProperty.side;
+            BlockPos target = pos.offset(side);
+            world.updateNeighbor(target, LibMultiPart.BLOCK, pos);
+
+            if (property instanceof StrongRedstonePowerProperty) {
+                world.updateNeighborsExcept(target, LibMultiPart.BLOCK, side.getOpposite());
+            }
             return;
         }
+    }
 
-        if (property == MultipartProperties.CAN_BE_WATERLOGGED) {
-            BlockState state = getMultipartWorld().getBlockState(getMultipartPos());
-            boolean val = Boolean.TRUE.equals(current);
-            boolean stateV = state.get(Properties.WATERLOGGED);
-            if (val || !stateV) {
-                return;
-            }
-            state = state.with(Properties.WATERLOGGED, Boolean.FALSE);
-            getMultipartWorld().setBlockState(getMultipartPos(), state);
+    private ReusableEvents getReusableEvents() {
+        if (reusableEvents == null) {
+            reusableEvents = new ReusableEvents(this::fireEvent);
+        }
+        return reusableEvents;
+    }
+
+    void onNeighbourUpdate(BlockPos otherPos) {
+        BlockPos pos = getMultipartPos();
+        Direction side = Direction.fromVector(
+            otherPos.getX() - pos.getX(), otherPos.getY() - pos.getY(), otherPos.getZ() - pos.getZ()
+        );
+        queueNeighboursChanged(side, otherPos);
+        if (!eventBus.hasAnyListenersFor(NeighbourUpdateEvent.class)) {
             return;
         }
+        if (LibMultiPart.REUSE_EVENTS) {
+            getReusableEvents().fireNeighbourUpdate(otherPos);
+        } else {
+            fireEvent(new NeighbourUpdateEvent(otherPos));
+        }
+    }
 
-        if (property instanceof RedstonePowerProperty) {
-            getMultipartWorld().updateNeighbors(getMultipartPos(), LibMultiPart.BLOCK);
+    void onNeighbourStateUpdate(Direction direction, BlockPos neighborPos, BlockState neighborState) {
+        queueNeighboursChanged(direction, neighborPos);
+        if (!eventBus.hasAnyListenersFor(NeighbourStateUpdateEvent.class)) {
+            return;
+        }
+        if (LibMultiPart.REUSE_EVENTS) {
+            getReusableEvents().fireNeighbourStateUpdate(direction, neighborPos, neighborState);
+        } else {
+            fireEvent(new NeighbourStateUpdateEvent(direction, neighborPos, neighborState));
+        }
+    }
 
-            if (property instanceof StrongRedstonePowerProperty) {
-                for (Direction dir : Direction.values()) {
-                    getMultipartWorld().updateNeighbors(getMultipartPos().offset(dir), LibMultiPart.BLOCK);
-                }
-            }
+    /** Adds the given update to the next {@link NeighboursChangedEvent}, if anything is listening for it.
+     * 
+     * @param side The side of this container that was updated, or null if the update didn't come from an adjacent
+     *            block. */
+    private void queueNeighboursChanged(@Nullable Direction side, BlockPos otherPos) {
+        if (!eventBus.hasAnyListenersFor(NeighboursChangedEvent.class)) {
             return;
         }
+        if (pendingNeighbourPositions == null) {
+            pendingNeighbourPositions = new HashSet<>();
+            // The event is fired from our tick, so we need to make sure that actually happens
+            blockEntity.setDormant(false);
+        }
+        pendingNeighbourPositions.add(otherPos.toImmutable());
+        if (side != null) {
+            pendingNeighbourSides.add(side);
+        }
+    }
+
+    void onEntityCollision(Entity entity) {
+        if (!eventBus.hasAnyListenersFor(PartEventEntityCollide.class)) {
+            return;
+        }
+        if (LibMultiPart.REUSE_EVENTS) {
+            getReusableEvents().fireEntityCollide(entity);
+        } else {
+            fireEvent(new PartEventEntityCollide(entity));
+        }
+    }
+
+    void onPrecipitationTick(Biome.Precipitation precipitation) {
+        if (!eventBus.hasAnyListenersFor(PartPrecipitationTickEvent.class)) {
+            return;
+        }
+        if (LibMultiPart.REUSE_EVENTS) {
+            getReusableEvents().firePrecipitationTick(precipitation);
+        } else {
+            fireEvent(new PartPrecipitationTickEvent(precipitation));
+        }
     }
 
     void addAllAttributes(AttributeList<?> list) {
@@ -1411,40 +1819,64 @@ public class PartContainer implements MultipartContainer {
     // # Redstone #
     // ############
 
-    private static final PartRedstonePowerEventFactory STRONG_EVENT_FACTORY, WEAK_EVENT_FACTORY;
-    private static final Function<PartRedstonePowerEvent, Integer> EVENT_VALUE;
+    static final PartRedstonePowerEventFactory STRONG_EVENT_FACTORY, WEAK_EVENT_FACTORY;
+    static final PartRedstonePowerEventResetter EVENT_RESETTER;
+    static final Function<PartRedstonePowerEvent, Integer> EVENT_VALUE;
 
     static {
         Class<PartRedstonePowerEvent> from = PartRedstonePowerEvent.class;
         Class<PartRedstonePowerEventFactory> type = PartRedstonePowerEventFactory.class;
         STRONG_EVENT_FACTORY = LmpReflection.getStaticApiField(from, "STRONG_FACTORY", type);
         WEAK_EVENT_FACTORY = LmpReflection.getStaticApiField(from, "WEAK_FACTORY", type);
+        EVENT_RESETTER
+            = LmpReflection.getStaticApiField(from, "RESETTER", PartRedstonePowerEventResetter.class);
         EVENT_VALUE = LmpReflection.getInstanceApiField(from, "value", Integer.class);
     }
 
+    /** @return True if the given property is stored in our {@link BlockState}. */
+    private static boolean isBlockStateProperty(MultipartProperty<?> property) {
+        return property == MultipartProperties.CAN_EMIT_REDSTONE || property == MultipartProperties.LIGHT_VALUE
+            || property == MultipartProperties.CAN_BE_WATERLOGGED;
+    }
+
+    private static int redstoneIndex(Direction side, boolean strong) {
+        return side.getId() * 2 + (strong ? 0 : 1);
+    }
+
+    private void updateRedstonePower(Direction side) {
+        int strong = properties.getValue(MultipartProperties.getStrongRedstonePower(side));
+        int weak = properties.getValue(MultipartProperties.getWeakRedstonePower(side));
+        redstonePower[redstoneIndex(side, true)] = (byte) strong;
+        redstonePower[redstoneIndex(side, false)] = (byte) Math.max(strong, weak);
+    }
+
     int getStrongRedstonePower(Direction direction) {
-        int emitted = properties.getValue(MultipartProperties.getStrongRedstonePower(direction));
+        int emitted = redstonePower[redstoneIndex(direction, true)];
         if (emitted == 15) {
+            // Optimisation: it's not possible to *reduce* this value.
             return 15;
         }
-        return getDynamicRedstone(direction, emitted, STRONG_EVENT_FACTORY);
+        return getDynamicRedstone(direction, emitted, true);
     }
 
     int getWeakRedstonePower(Direction direction) {
-        StrongRedstonePowerProperty strongProp = MultipartProperties.getStrongRedstonePower(direction);
-        int strong = properties.getValue(strongProp);
-        if (strong == 15) {
-            // Optimisation: it's not possible to *reduce* this value.
-            return 15;
-        }
-        int emitted = Math.max(strong, properties.getValue(MultipartProperties.getWeakRedstonePower(direction)));
+        int emitted = redstonePower[redstoneIndex(direction, false)];
         if (emitted == 15) {
-            return emitted;
+            return 15;
         }
-        return getDynamicRedstone(direction, emitted, WEAK_EVENT_FACTORY);
+        return getDynamicRedstone(direction, emitted, false);
     }
 
-    private int getDynamicRedstone(Direction direction, int emitted, PartRedstonePowerEventFactory factory) {
+    private int getDynamicRedstone(Direction direction, int emitted, boolean strong) {
+        Class<? extends PartRedstonePowerEvent> eventClass
+            = strong ? PartStrongRedstonePowerEvent.class : PartWeakRedstonePowerEvent.class;
+        if (!eventBus.hasAnyListenersFor(eventClass)) {
+            return emitted;
+        }
+        if (LibMultiPart.REUSE_EVENTS) {
+            return getReusableEvents().fireRedstonePower(strong, emitted, direction);
+        }
+        PartRedstonePowerEventFactory factory = strong ? STRONG_EVENT_FACTORY : WEAK_EVENT_FACTORY;
         PartRedstonePowerEvent event = factory.create(emitted, direction);
         fireEvent(event);
         return EVENT_VALUE.apply(event);
@@ -28,8 +28,10 @@ import net.minecraft.util.BlockRotation;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Util;
 import net.minecraft.util.collection.DefaultedList;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.DirectionTransformation;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
 
 import alexiil.mc.lib.net.IMsgReadCtx;
 import alexiil.mc.lib.net.IMsgWriteCtx;
@@ -65,6 +67,20 @@ public final class PartHolder implements MultipartHolder {
      * {@link PartHolder} that is not currently loaded. */
     Set<PosPartId> unloadedInverseRequiredParts;
 
+    /** Every shape of {@link #part}, indexed by the PartContainer.SHAPE_ constants, as of the last time they were
+     * included in the container's cached shapes. Null if they haven't been taken yet. */
+    @Nullable
+    VoxelShape[] shapeSnapshot;
+
+    /** The bounding box of the full shape in {@link #shapeSnapshot}, or null if that shape is empty. */
+    @Nullable
+    Box shapeBounds;
+
+    /** Cached part of the full shape which isn't covered by any other part in the container. Only valid if
+     * {@link #leftoverVersion} is equal to {@link PartContainer#shapeVersion}. */
+    VoxelShape leftoverShape;
+    int leftoverVersion = -1;
+
     PartHolder(PartContainer container, MultipartCreator creator) {
         this.container = container;
         this.part = creator.create(this);
@@ -204,6 +220,44 @@ public final class PartHolder implements MultipartHolder {
         return "{PartHolder uid = " + uniqueId + ", part = " + part + "}";
     }
 
+    /** @return {@link #shapeSnapshot}, taking it first if necessary. */
+    VoxelShape[] getShapeSnapshot() {
+        VoxelShape[] shapes = shapeSnapshot;
+        return shapes != null ? shapes : takeShapeSnapshot();
+    }
+
+    /** Replaces {@link #shapeSnapshot} with the current (interned) shapes of {@link #part}. */
+    VoxelShape[] takeShapeSnapshot() {
+        VoxelShape[] shapes = new VoxelShape[PartContainer.SHAPE_COUNT];
+        VoxelShape[] previous = shapeSnapshot;
+        VoxelShape firstShape = null;
+        for (int i = 0; i < shapes.length; i++) {
+            VoxelShape shape = PartContainer.getPartShape(part, i);
+            if (i == 0) {
+                firstShape = shape;
+            }
+            if (previous != null && previous[i] == shape) {
+                // Already interned
+                shapes[i] = shape;
+            } else if (i > 0 && shape == firstShape) {
+                // Most parts use the same shape for several types (which is the default in AbstractPart)
+                shapes[i] = shapes[0];
+            } else {
+                shapes[i] = ShapeCache.intern(shape);
+            }
+        }
+        VoxelShape full = shapes[PartContainer.SHAPE_FULL];
+        shapeBounds = full.isEmpty() ? null : full.getBoundingBox();
+        return shapeSnapshot = shapes;
+    }
+
+    /** @return {@link #shapeBounds}, taking the {@link #shapeSnapshot} first if necessary. */
+    @Nullable
+    Box getShapeBounds() {
+        getShapeSnapshot();
+        return shapeBounds;
+    }
+
     @Override
     public MultipartContainer getContainer() {
         return container;
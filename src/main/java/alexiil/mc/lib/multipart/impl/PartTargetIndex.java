@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.util.shape.VoxelShape;
+
+/** Flattened copy of every part's outline boxes (expanded slightly, to match what the player sees as the selection
+ * outline) for a single {@link PartContainer}, used to find the part at a given point without allocating anything.
+ * This is rebuilt lazily whenever {@link PartContainer#shapeVersion} changes. */
+final class PartTargetIndex {
+
+    /** How far each outline box is expanded by, so that points exactly on the surface of a part still hit it. */
+    private static final double EXPANSION = 0.01;
+
+    private static final double[] NO_BOXES = new double[0];
+
+    final PartContainer container;
+
+    private int version = -1;
+
+    /** The holder for each indexed part, in the same order as {@link PartContainer#parts}. */
+    private PartHolder[] holders = new PartHolder[0];
+
+    /** The bounding box of each part's (expanded) boxes, as minX, minY, minZ, maxX, maxY, maxZ. */
+    private double[] partBounds = NO_BOXES;
+
+    /** The index (in boxes) of the first box for each part, plus one extra entry for the end of the last part. */
+    private int[] boxStart = { 0 };
+
+    /** Every expanded box of every part, as minX, minY, minZ, maxX, maxY, maxZ. */
+    private double[] boxes = NO_BOXES;
+
+    PartTargetIndex(PartContainer container) {
+        this.container = container;
+    }
+
+    /** @return The number of indexed parts. This also rebuilds the index if any part's shape has changed, so should be
+     *         called before any other method. */
+    int update() {
+        if (version != container.shapeVersion || holders.length != container.parts.size()) {
+            rebuild();
+        }
+        return holders.length;
+    }
+
+    private void rebuild() {
+        int count = container.parts.size();
+        holders = container.parts.toArray(new PartHolder[count]);
+        if (partBounds.length != count * 6) {
+            partBounds = new double[count * 6];
+        }
+        if (boxStart.length != count + 1) {
+            boxStart = new int[count + 1];
+        }
+
+        int boxCount = 0;
+        for (int i = 0; i < count; i++) {
+            boxStart[i] = boxCount;
+            VoxelShape shape = holders[i].getShapeSnapshot()[PartContainer.SHAPE_OUTLINE];
+            Arrays.fill(partBounds, i * 6, i * 6 + 3, Double.POSITIVE_INFINITY);
+            Arrays.fill(partBounds, i * 6 + 3, i * 6 + 6, Double.NEGATIVE_INFINITY);
+            final int part = i;
+            final int[] index = { boxCount };
+            shape.forEachBox((minX, minY, minZ, maxX, maxY, maxZ) -> {
+                int b = index[0] * 6;
+                if (b + 6 > boxes.length) {
+                    boxes = Arrays.copyOf(boxes, Math.max(b + 6, boxes.length * 2));
+                }
+                boxes[b] = minX - EXPANSION;
+                boxes[b + 1] = minY - EXPANSION;
+                boxes[b + 2] = minZ - EXPANSION;
+                boxes[b + 3] = maxX + EXPANSION;
+                boxes[b + 4] = maxY + EXPANSION;
+                boxes[b + 5] = maxZ + EXPANSION;
+                int p = part * 6;
+                for (int j = 0; j < 3; j++) {
+                    partBounds[p + j] = Math.min(partBounds[p + j], boxes[b + j]);
+                    partBounds[p + 3 + j] = Math.max(partBounds[p + 3 + j], boxes[b + 3 + j]);
+                }
+                index[0]++;
+            });
+            boxCount = index[0];
+        }
+        boxStart[count] = boxCount;
+        version = container.shapeVersion;
+    }
+
+    PartHolder getHolder(int index) {
+        return holders[index];
+    }
+
+    /** @return True if the given point is within the combined bounds of all of the given part's boxes. */
+    boolean boundsContain(int index, double x, double y, double z) {
+        return contains(partBounds, index * 6, x, y, z);
+    }
+
+    /** @return True if the given point is within any of the boxes of the given part. */
+    boolean contains(int index, double x, double y, double z) {
+        if (!boundsContain(index, x, y, z)) {
+            return false;
+        }
+        for (int b = boxStart[index]; b < boxStart[index + 1]; b++) {
+            if (contains(boxes, b * 6, x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return The first part which contains the given point, or null if none of them do. */
+    @Nullable
+    PartHolder getHolder(double x, double y, double z) {
+        int count = update();
+        for (int i = 0; i < count; i++) {
+            if (contains(i, x, y, z)) {
+                return holders[i];
+            }
+        }
+        return null;
+    }
+
+    /** Same semantics as {@link net.minecraft.util.math.Box#contains(double, double, double)}. */
+    private static boolean contains(double[] array, int offset, double x, double y, double z) {
+        return x >= array[offset] && x < array[offset + 3]
+            && y >= array[offset + 1] && y < array[offset + 4]
+            && z >= array[offset + 2] && z < array[offset + 5];
+    }
+}
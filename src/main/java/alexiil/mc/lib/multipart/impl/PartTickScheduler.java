@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import alexiil.mc.lib.multipart.api.BatchTickedPart;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+/** Ticks every {@link BatchTickedPart} in a single {@link ServerWorld}, grouped by the class of the part. Only used if
+ * {@link LibMultiPart#BATCH_TICKS} is true. */
+final class PartTickScheduler {
+
+    private static final Map<ServerWorld, PartTickScheduler> SCHEDULERS = new WeakHashMap<>();
+
+    /** The number of ticks between each (debug only) report of how long each part class took to tick. */
+    private static final int REPORT_INTERVAL = 20 * 60;
+
+    private static final Group[] EMPTY_GROUPS = new Group[0];
+
+    private final ServerWorld world;
+    private final Map<Class<?>, Group> groups = new HashMap<>();
+    private Group[] packedGroups = EMPTY_GROUPS;
+    private boolean isTicking = false;
+    private int ticksSinceReport = 0;
+
+    private PartTickScheduler(ServerWorld world) {
+        this.world = world;
+    }
+
+    static void init() {
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            PartTickScheduler scheduler = SCHEDULERS.get(world);
+            if (scheduler != null) {
+                scheduler.tick();
+            }
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> SCHEDULERS.remove(world));
+    }
+
+    static PartTickScheduler get(ServerWorld world) {
+        return SCHEDULERS.computeIfAbsent(world, PartTickScheduler::new);
+    }
+
+    @Nullable
+    static PartTickScheduler getIfPresent(ServerWorld world) {
+        return SCHEDULERS.get(world);
+    }
+
+    void add(BatchTickedPart part, BlockPos pos) {
+        Group group = groups.get(part.getClass());
+        if (group == null) {
+            group = new Group(part.getClass());
+            groups.put(part.getClass(), group);
+            packedGroups = groups.values().toArray(EMPTY_GROUPS);
+        }
+        group.add(part, pos.toImmutable());
+    }
+
+    void remove(BatchTickedPart part) {
+        Group group = groups.get(part.getClass());
+        if (group != null) {
+            group.remove(part, isTicking);
+        }
+    }
+
+    private void tick() {
+        Group[] toTick = packedGroups;
+        isTicking = true;
+        try {
+            for (Group group : toTick) {
+                group.tick(world);
+            }
+        } finally {
+            isTicking = false;
+            for (Group group : toTick) {
+                if (group.hasHoles) {
+                    group.compact();
+                }
+            }
+        }
+
+        if (LibMultiPart.DEBUG && ++ticksSinceReport >= REPORT_INTERVAL) {
+            ticksSinceReport = 0;
+            logReport();
+        }
+    }
+
+    private void logReport() {
+        LibMultiPart.LOGGER.info(
+            "[tick-scheduler] " + world.getRegistryKey().getValue() + " over the last " + REPORT_INTERVAL + " ticks:"
+        );
+        for (Group group : packedGroups) {
+            if (group.partTicks == 0) {
+                continue;
+            }
+            LibMultiPart.LOGGER.info(
+                "[tick-scheduler]   " + group.partClass.getName() + ": " + group.size + " parts, "
+                    + (group.nanos / REPORT_INTERVAL / 1000) + "us per tick, " + (group.nanos / group.partTicks)
+                    + "ns per part"
+            );
+            group.nanos = 0;
+            group.partTicks = 0;
+        }
+    }
+
+    private static final class Group {
+        final Class<?> partClass;
+
+        /** Parts are referenced by index into both {@link #parts} and {@link #positions}. */
+        final Reference2IntOpenHashMap<BatchTickedPart> indices = new Reference2IntOpenHashMap<>();
+        BatchTickedPart[] parts = new BatchTickedPart[8];
+        BlockPos[] positions = new BlockPos[8];
+        int size = 0;
+
+        /** True if any parts were removed while ticking, so {@link #parts} contains nulls. */
+        boolean hasHoles = false;
+
+        long nanos = 0;
+        long partTicks = 0;
+
+        Group(Class<?> partClass) {
+            this.partClass = partClass;
+            indices.defaultReturnValue(-1);
+        }
+
+        void add(BatchTickedPart part, BlockPos pos) {
+            if (indices.containsKey(part)) {
+                return;
+            }
+            if (size == parts.length) {
+                parts = Arrays.copyOf(parts, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            parts[size] = part;
+            positions[size] = pos;
+            indices.put(part, size);
+            size++;
+        }
+
+        void remove(BatchTickedPart part, boolean isTicking) {
+            int index = indices.removeInt(part);
+            if (index < 0) {
+                return;
+            }
+            if (isTicking) {
+                // Don't move anything around while the arrays are being iterated over
+                parts[index] = null;
+                positions[index] = null;
+                hasHoles = true;
+            } else {
+                size--;
+                if (index != size) {
+                    parts[index] = parts[size];
+                    positions[index] = positions[size];
+                    indices.put(parts[index], index);
+                }
+                parts[size] = null;
+                positions[size] = null;
+            }
+        }
+
+        void tick(ServerWorld world) {
+            // Parts added while ticking will be ticked next time
+            final int count = size;
+            if (count == 0) {
+                return;
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                // Always re-read the arrays, as they may be changed by the part that has just ticked
+                BatchTickedPart part = parts[i];
+                if (part != null && world.shouldTickBlockPos(positions[i])) {
+                    part.tickBatched();
+                }
+            }
+            nanos += System.nanoTime() - start;
+            partTicks += count;
+        }
+
+        void compact() {
+            int to = 0;
+            for (int from = 0; from < size; from++) {
+                BatchTickedPart part = parts[from];
+                if (part == null) {
+                    continue;
+                }
+                if (from != to) {
+                    parts[to] = part;
+                    positions[to] = positions[from];
+                    indices.put(part, to);
+                }
+                to++;
+            }
+            Arrays.fill(parts, to, size, null);
+            Arrays.fill(positions, to, size, null);
+            size = to;
+            hasHoles = false;
+        }
+    }
+}
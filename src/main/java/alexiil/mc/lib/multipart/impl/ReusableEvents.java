@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.function.Consumer;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.biome.Biome;
+
+import alexiil.mc.lib.multipart.api.event.MultipartEvent;
+import alexiil.mc.lib.multipart.api.event.NeighbourStateUpdateEvent;
+import alexiil.mc.lib.multipart.api.event.NeighbourUpdateEvent;
+import alexiil.mc.lib.multipart.api.event.PartEventEntityCollide;
+import alexiil.mc.lib.multipart.api.event.PartPrecipitationTickEvent;
+import alexiil.mc.lib.multipart.api.event.PartRedstonePowerEvent;
+
+/** Holds the {@linkplain MultipartEvent reusable} events for a single {@link PartContainer}. This is only used if
+ * {@link LibMultiPart#REUSE_EVENTS} is enabled.
+ * <p>
+ * Every event has an "in use" flag: if an event is fired again while it's still being handled (for example a neighbour
+ * update that causes another neighbour update) then a new event is created for the inner call instead. References to
+ * other objects are cleared once an event has been handled so that this doesn't keep them loaded. */
+final class ReusableEvents {
+
+    private final Consumer<MultipartEvent> fireEvent;
+
+    private NeighbourUpdateEvent neighbourUpdate;
+    private NeighbourStateUpdateEvent neighbourStateUpdate;
+    private PartEventEntityCollide entityCollide;
+    private PartPrecipitationTickEvent precipitationTick;
+    private PartRedstonePowerEvent strongPower, weakPower;
+
+    private boolean neighbourUpdateInUse, neighbourStateUpdateInUse, entityCollideInUse, precipitationTickInUse;
+    private boolean strongPowerInUse, weakPowerInUse;
+
+    /** @param fireEvent Fires an event on the owning container's event bus. */
+    ReusableEvents(Consumer<MultipartEvent> fireEvent) {
+        this.fireEvent = fireEvent;
+    }
+
+    void fireNeighbourUpdate(BlockPos pos) {
+        if (neighbourUpdateInUse) {
+            fireEvent.accept(new NeighbourUpdateEvent(pos));
+            return;
+        }
+        NeighbourUpdateEvent event = neighbourUpdate;
+        if (event == null) {
+            event = neighbourUpdate = new NeighbourUpdateEvent(pos);
+        } else {
+            event.pos = pos;
+        }
+        neighbourUpdateInUse = true;
+        try {
+            fireEvent.accept(event);
+        } finally {
+            event.pos = null;
+            neighbourUpdateInUse = false;
+        }
+    }
+
+    void fireNeighbourStateUpdate(Direction direction, BlockPos pos, BlockState newState) {
+        if (neighbourStateUpdateInUse) {
+            fireEvent.accept(new NeighbourStateUpdateEvent(direction, pos, newState));
+            return;
+        }
+        NeighbourStateUpdateEvent event = neighbourStateUpdate;
+        if (event == null) {
+            event = neighbourStateUpdate = new NeighbourStateUpdateEvent(direction, pos, newState);
+        } else {
+            event.direction = direction;
+            event.pos = pos;
+            event.newState = newState;
+        }
+        neighbourStateUpdateInUse = true;
+        try {
+            fireEvent.accept(event);
+        } finally {
+            event.pos = null;
+            event.newState = null;
+            neighbourStateUpdateInUse = false;
+        }
+    }
+
+    void fireEntityCollide(Entity entity) {
+        if (entityCollideInUse) {
+            fireEvent.accept(new PartEventEntityCollide(entity));
+            return;
+        }
+        PartEventEntityCollide event = entityCollide;
+        if (event == null) {
+            event = entityCollide = new PartEventEntityCollide(entity);
+        } else {
+            event.entity = entity;
+        }
+        entityCollideInUse = true;
+        try {
+            fireEvent.accept(event);
+        } finally {
+            event.entity = null;
+            entityCollideInUse = false;
+        }
+    }
+
+    void firePrecipitationTick(Biome.Precipitation precipitation) {
+        if (precipitationTickInUse) {
+            fireEvent.accept(new PartPrecipitationTickEvent(precipitation));
+            return;
+        }
+        PartPrecipitationTickEvent event = precipitationTick;
+        if (event == null) {
+            event = precipitationTick = new PartPrecipitationTickEvent(precipitation);
+        } else {
+            event.precipitation = precipitation;
+        }
+        precipitationTickInUse = true;
+        try {
+            fireEvent.accept(event);
+        } finally {
+            precipitationTickInUse = false;
+        }
+    }
+
+    /** @return The final redstone power value, after every listener has been called. */
+    int fireRedstonePower(boolean strong, int emitted, Direction side) {
+        if (strong ? strongPowerInUse : weakPowerInUse) {
+            PartRedstonePowerEvent event = (strong ? PartContainer.STRONG_EVENT_FACTORY
+                : PartContainer.WEAK_EVENT_FACTORY).create(emitted, side);
+            fireEvent.accept(event);
+            return PartContainer.EVENT_VALUE.apply(event);
+        }
+        PartRedstonePowerEvent event = strong ? strongPower : weakPower;
+        if (event == null) {
+            if (strong) {
+                event = strongPower = PartContainer.STRONG_EVENT_FACTORY.create(emitted, side);
+            } else {
+                event = weakPower = PartContainer.WEAK_EVENT_FACTORY.create(emitted, side);
+            }
+        } else {
+            PartContainer.EVENT_RESETTER.reset(event, emitted, side);
+        }
+        if (strong) {
+            strongPowerInUse = true;
+        } else {
+            weakPowerInUse = true;
+        }
+        try {
+            fireEvent.accept(event);
+            return PartContainer.EVENT_VALUE.apply(event);
+        } finally {
+            if (strong) {
+                strongPowerInUse = false;
+            } else {
+                weakPowerInUse = false;
+            }
+        }
+    }
+}
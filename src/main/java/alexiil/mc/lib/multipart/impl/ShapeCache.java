@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.cache.CacheBuilder;
+
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelSet;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+import alexiil.mc.lib.multipart.mixin.impl.VoxelShapeAccessor;
+
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+
+/** Global caches that let identical part shapes (and unions of them) be shared between every container, rather than
+ * each container computing and holding on to it's own copies. None of the caches strongly reference any shape, so
+ * shapes which are no longer used by any container can be garbage collected. */
+final class ShapeCache {
+
+    /** Every interned shape, keyed by it's exact layout (so shapes which would produce different outlines are never
+     * merged). */
+    private static final ConcurrentMap<ShapeKey, VoxelShape> INTERNED
+        = CacheBuilder.newBuilder().weakValues().<ShapeKey, VoxelShape> build().asMap();
+
+    /** The result of {@link #intern(VoxelShape)} for every shape object passed to it, so that parts which return the
+     * same shape object every time don't need a {@link ShapeKey} built. (Weak keys are compared by identity). */
+    private static final ConcurrentMap<VoxelShape, VoxelShape> INTERNED_BY_IDENTITY
+        = CacheBuilder.newBuilder().weakKeys().weakValues().<VoxelShape, VoxelShape> build().asMap();
+
+    /** The result of {@link VoxelShapes#union(VoxelShape, VoxelShape)} for every pair of interned shapes, keyed by
+     * one shape and then the other. Every key is weak, as the result is often one of the inputs. */
+    private static final ConcurrentMap<VoxelShape, ConcurrentMap<VoxelShape, VoxelShape>> UNIONS
+        = CacheBuilder.newBuilder().weakKeys().<VoxelShape, ConcurrentMap<VoxelShape, VoxelShape>> build().asMap();
+
+    private ShapeCache() {}
+
+    /** @return A shape with exactly the same layout as the given shape, which may be the given shape itself. */
+    static VoxelShape intern(VoxelShape shape) {
+        if (shape.isEmpty()) {
+            return VoxelShapes.empty();
+        }
+        if (shape == VoxelShapes.fullCube()) {
+            return shape;
+        }
+        VoxelShape interned = INTERNED_BY_IDENTITY.get(shape);
+        if (interned == null) {
+            VoxelShape existing = INTERNED.putIfAbsent(new ShapeKey(shape), shape);
+            interned = existing != null ? existing : shape;
+            INTERNED_BY_IDENTITY.put(shape, interned);
+        }
+        return interned;
+    }
+
+    /** Memoised version of {@link VoxelShapes#union(VoxelShape, VoxelShape)}. The results are shared between every
+     * caller, so this works best if both arguments have been {@link #intern(VoxelShape) interned} (or are themselves
+     * the result of this method). */
+    static VoxelShape union(VoxelShape a, VoxelShape b) {
+        if (a == b || b.isEmpty()) {
+            return a;
+        }
+        if (a.isEmpty()) {
+            return b;
+        }
+        // union is commutative, so (a, b) and (b, a) share the same entry
+        VoxelShape first = a, second = b;
+        if (System.identityHashCode(a) > System.identityHashCode(b)) {
+            first = b;
+            second = a;
+        }
+        ConcurrentMap<VoxelShape, VoxelShape> results = UNIONS.computeIfAbsent(
+            first, k -> CacheBuilder.newBuilder().weakKeys().weakValues().<VoxelShape, VoxelShape> build().asMap()
+        );
+        VoxelShape result = results.get(second);
+        if (result == null) {
+            result = intern(VoxelShapes.union(a, b));
+            results.put(second, result);
+        }
+        return result;
+    }
+
+    /** Key for {@link ShapeCache#INTERNED}: the point positions along each axis, and which voxels are filled. This
+     * doesn't reference the shape itself, so it doesn't stop the shape from being collected. */
+    private static final class ShapeKey {
+        final DoubleList xPoints, yPoints, zPoints;
+        final int xSize, ySize, zSize;
+        final BitSet filled;
+        final int hash;
+
+        ShapeKey(VoxelShape shape) {
+            VoxelShapeAccessor accessor = (VoxelShapeAccessor) shape;
+            xPoints = accessor.callGetPointPositions(Direction.Axis.X);
+            yPoints = accessor.callGetPointPositions(Direction.Axis.Y);
+            zPoints = accessor.callGetPointPositions(Direction.Axis.Z);
+            VoxelSet voxels = accessor.getVoxels();
+            xSize = voxels.getXSize();
+            ySize = voxels.getYSize();
+            zSize = voxels.getZSize();
+            filled = new BitSet(xSize * ySize * zSize);
+            for (int x = 0; x < xSize; x++) {
+                for (int y = 0; y < ySize; y++) {
+                    for (int z = 0; z < zSize; z++) {
+                        if (voxels.contains(x, y, z)) {
+                            filled.set((x * ySize + y) * zSize + z);
+                        }
+                    }
+                }
+            }
+            int h = xPoints.hashCode();
+            h = h * 31 + yPoints.hashCode();
+            h = h * 31 + zPoints.hashCode();
+            hash = h * 31 + filled.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ShapeKey other)) {
+                return false;
+            }
+            return hash == other.hash && xSize == other.xSize && ySize == other.ySize && zSize == other.zSize
+                && filled.equals(other.filled) && xPoints.equals(other.xPoints) && yPoints.equals(other.yPoints)
+                && zPoints.equals(other.zPoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
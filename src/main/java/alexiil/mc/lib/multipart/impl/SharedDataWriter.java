@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import alexiil.mc.lib.net.IMsgWriteCtx;
+import alexiil.mc.lib.net.NetByteBuf;
+import alexiil.mc.lib.net.NetIdDataK.IMsgDataWriterK;
+
+import alexiil.mc.lib.multipart.api.misc.ConnectionIndependentWriter;
+
+/** Calls the real writer for the first connection only (into a separate buffer), and then copies the written bytes
+ * for every other connection. Only used if {@link LibMultiPart#SHARE_ENCODING} is true, and the real writer is a
+ * {@link ConnectionIndependentWriter}.
+ * <p>
+ * Bit-packed writes survive the copy: {@link NetByteBuf} writes each partial byte as soon as the first bit in it is
+ * written (and fills in the rest later), so every written bit is included in the copied bytes. */
+final class SharedDataWriter<T> implements IMsgDataWriterK<T> {
+    final ConnectionIndependentWriter<T> writer;
+    byte[] payload;
+
+    SharedDataWriter(ConnectionIndependentWriter<T> writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(T obj, NetByteBuf buffer, IMsgWriteCtx ctx) {
+        if (payload == null) {
+            NetByteBuf encoded = NetByteBuf.buffer();
+            try {
+                writer.write(obj, encoded, ctx);
+                payload = new byte[encoded.readableBytes()];
+                encoded.readBytes(payload);
+            } finally {
+                encoded.release();
+            }
+        }
+        buffer.writeBytes(payload);
+    }
+}
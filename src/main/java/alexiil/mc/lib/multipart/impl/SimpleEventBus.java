@@ -8,9 +8,12 @@
 package alexiil.mc.lib.multipart.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import alexiil.mc.lib.multipart.api.MultipartContainer;
 import alexiil.mc.lib.multipart.api.MultipartEventBus;
@@ -18,25 +21,81 @@ import alexiil.mc.lib.multipart.api.event.EventListener;
 import alexiil.mc.lib.multipart.api.event.MultipartEvent;
 import alexiil.mc.lib.multipart.api.event.PartListenerAdded;
 import alexiil.mc.lib.multipart.api.event.PartListenerRemoved;
+import alexiil.mc.lib.multipart.api.event.StoppableEvent;
 
 import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
 import it.unimi.dsi.fastutil.booleans.BooleanList;
 
-/** A simple, dumb, {@link ArrayList} based approach for storing event listeners. */
+/** A simple {@link ArrayList} based approach for storing event listeners, which caches the listeners that each
+ * concrete event class is dispatched to. */
 public class SimpleEventBus implements MultipartEventBus {
 
     private static final SingleListener<?>[] EMPTY_LISTENER_ARRAY = new SingleListener[0];
+    private static final long[] EMPTY_FLAGS = new long[0];
+
+    private static final AtomicInteger NEXT_CLASS_ID = new AtomicInteger();
+
+    /** Gives every event class a small unique id, used as an index into {@link #classListenerCounts} and
+     * {@link #classListenedFlags}. */
+    private static final ClassValue<Integer> CLASS_IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_CLASS_ID.getAndIncrement();
+        }
+    };
+
+    /** For every event class, a bitset of the {@link #CLASS_IDS} of that class and all of it's superclasses - in other
+     * words every listener class that would receive an event of that class. */
+    private static final ClassValue<long[]> RECEIVER_MASKS = new ClassValue<>() {
+        @Override
+        protected long[] computeValue(Class<?> type) {
+            long[] mask = EMPTY_FLAGS;
+            for (Class<?> c = type; c != null && MultipartEvent.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                int id = CLASS_IDS.get(c);
+                int word = id >>> 6;
+                if (word >= mask.length) {
+                    mask = Arrays.copyOf(mask, word + 1);
+                }
+                mask[word] |= 1L << (id & 63);
+            }
+            return mask;
+        }
+    };
 
     private final PartContainer container;
+
+    /** Every listener, in registration order. Removed listeners are only taken out of this list (and
+     * {@link #packedListeners}) in {@link #ensurePacked()}, so that removing lots of listeners at once only needs a
+     * single pass. */
     private final List<SingleListener<?>> listeners = new ArrayList<>();
 
-    /** Used for iterating over the listeners in {@link #fireEvent(MultipartEvent)}. */
+    /** Every listener that is still present, grouped by it's key (compared with identity equality). */
+    private final Map<Object, List<SingleListener<?>>> listenersByKey = new IdentityHashMap<>();
+
+    private int listenerCount = 0;
+
+    /** Every listener, in registration order. This is the source for {@link #dispatchTable}. Only valid if
+     * {@link #needsRepack} is false. */
     private SingleListener<?>[] packedListeners = EMPTY_LISTENER_ARRAY;
 
+    /** True if {@link #listeners} has changed since {@link #packedListeners} was last built. */
+    private boolean needsRepack = false;
+
+    /** Maps a concrete event class to the listeners in {@link #packedListeners} that can receive it. Entries are
+     * computed lazily in {@link #getDispatchArray(Class)}, and the whole table is dropped whenever
+     * {@link #packedListeners} is rebuilt. */
+    private final Map<Class<?>, SingleListener<?>[]> dispatchTable = new IdentityHashMap<>();
+
+    /** The number of {@link #fireEvent(MultipartEvent)} calls (and {@link #startMutationBatch() mutation batches})
+     * currently in progress. Listener added/removed events are delayed until this is back to 0. */
     private int eventCallLevel = 0;
     private boolean didListenersChange = false;
 
-//    private long classListenedFlagA, classListenedFlagB;
+    /** The number of registered listeners for each {@link #CLASS_IDS class id}. */
+    private int[] classListenerCounts = new int[0];
+
+    /** A bitset over {@link #CLASS_IDS}, with a bit set for every class that has at least one registered listener. */
+    private long[] classListenedFlags = EMPTY_FLAGS;
 
     private final List<SingleListener<?>> listenersChanged = new ArrayList<>();
     private final BooleanList listenerChangedToAdd = new BooleanArrayList();
@@ -56,9 +115,22 @@ public class SimpleEventBus implements MultipartEventBus {
         assert eventCallLevel >= 0;
         try {
             eventCallLevel++;
-            for (SingleListener<?> listener : packedListeners) {
-                anyHandled |= listener.onEvent(event);
+            SingleListener<?>[] receivers = getDispatchArray(event.getClass());
+            if (LibMultiPart.PROFILE_EVENTS) {
+                EventProfiler.dispatch(event, receivers);
+            } else if (event instanceof StoppableEvent stoppable) {
+                for (SingleListener<?> listener : receivers) {
+                    listener.onEvent(event);
+                    if (stoppable.isDispatchStopped()) {
+                        break;
+                    }
+                }
+            } else {
+                for (SingleListener<?> listener : receivers) {
+                    listener.onEvent(event);
+                }
             }
+            anyHandled = receivers.length > 0;
         } finally {
             eventCallLevel--;
         }
@@ -66,12 +138,31 @@ public class SimpleEventBus implements MultipartEventBus {
         if (eventCallLevel > 0) {
             return anyHandled;
         }
+        flushListenerChanges();
+        return anyHandled;
+    }
+
+    /** Starts a batch of listener changes: the listener added and removed events will only be fired once the matching
+     * {@link #endMutationBatch()} is called. (Calls to {@link #fireEvent(MultipartEvent)} will still be delivered
+     * immediately). */
+    void startMutationBatch() {
+        assert eventCallLevel >= 0;
+        eventCallLevel++;
+    }
+
+    void endMutationBatch() {
+        eventCallLevel--;
+        assert eventCallLevel >= 0 : "Event call level was negative? (" + eventCallLevel + ")";
+        if (eventCallLevel == 0) {
+            flushListenerChanges();
+        }
+    }
+
+    private void flushListenerChanges() {
         while (didListenersChange) {
 
             assert eventCallLevel == 0 : "Event call level was non-zero? (" + eventCallLevel + ")";
 
-            packedListeners = listeners.toArray(new SingleListener[0]);
-
             SingleListener<?>[] changed = listenersChanged.toArray(new SingleListener<?>[0]);
             boolean[] changedToAdd = listenerChangedToAdd.toBooleanArray();
 
@@ -88,7 +179,6 @@ public class SimpleEventBus implements MultipartEventBus {
                 }
             }
         }
-        return anyHandled;
     }
 
     @Override
@@ -96,61 +186,113 @@ public class SimpleEventBus implements MultipartEventBus {
         Object key, Class<E> clazz, EventListener<E> listener
     ) {
         SingleListener<E> single = new SingleListener<>(key, clazz, listener);
-        listeners.add(single);
         if (eventCallLevel > 0) {
+            register(single);
             listenersChanged.add(single);
             listenerChangedToAdd.add(true);
             didListenersChange = true;
         } else {
+            // PartListenerAdded is documented to be fired before the listener is actually added
             fireListenerAddEvent(single);
+            register(single);
         }
-        packedListeners = listeners.toArray(new SingleListener[0]);
         return single;
     }
 
+    private void register(SingleListener<?> single) {
+        listeners.add(single);
+        listenersByKey.computeIfAbsent(single.key, k -> new ArrayList<>(2)).add(single);
+        listenerCount++;
+        onClassListenerAdded(single.classId);
+        needsRepack = true;
+    }
+
+    private void unregister(SingleListener<?> single) {
+        single.isPresent = false;
+        List<SingleListener<?>> forKey = listenersByKey.get(single.key);
+        forKey.remove(single);
+        if (forKey.isEmpty()) {
+            listenersByKey.remove(single.key);
+        }
+        listenerCount--;
+        onClassListenerRemoved(single.classId);
+        needsRepack = true;
+    }
+
+    /** Removes every listener that is no longer present from {@link #listeners}, and rebuilds
+     * {@link #packedListeners} if anything changed since the last call. */
+    private void ensurePacked() {
+        if (needsRepack) {
+            needsRepack = false;
+            listeners.removeIf(single -> !single.isPresent);
+            packedListeners = listeners.toArray(EMPTY_LISTENER_ARRAY);
+            dispatchTable.clear();
+        }
+    }
+
+    /** @return Every listener that will receive events of exactly the given class, in registration order. */
+    private SingleListener<?>[] getDispatchArray(Class<?> eventClass) {
+        ensurePacked();
+        SingleListener<?>[] array = dispatchTable.get(eventClass);
+        if (array == null) {
+            int count = 0;
+            SingleListener<?>[] all = packedListeners;
+            SingleListener<?>[] matching = new SingleListener<?>[all.length];
+            for (SingleListener<?> single : all) {
+                if (single.clazz.isAssignableFrom(eventClass)) {
+                    matching[count++] = single;
+                }
+            }
+            array = count == 0 ? EMPTY_LISTENER_ARRAY : Arrays.copyOf(matching, count);
+            dispatchTable.put(eventClass, array);
+        }
+        return array;
+    }
+
     protected <E extends MultipartEvent> void fireListenerAddEvent(SingleListener<E> single) {
         container.onListenerAdded(single);
-        fireEvent(new PartListenerAdded<>(single.key, single.clazz, single.listener));
+        if (hasAnyListenersFor(PartListenerAdded.class)) {
+            fireEvent(new PartListenerAdded<>(single.key, single.clazz, single.listener));
+        }
     }
 
     protected <E extends MultipartEvent> void fireListenerRemoveEvent(SingleListener<E> single) {
         container.onListenerRemoved(single);
-        fireEvent(new PartListenerRemoved<>(single.key, single.clazz, single.listener));
+        if (hasAnyListenersFor(PartListenerRemoved.class)) {
+            fireEvent(new PartListenerRemoved<>(single.key, single.clazz, single.listener));
+        }
     }
 
     void clearListeners() {
-        ListIterator<SingleListener<?>> iter = listeners.listIterator(listeners.size());
-        boolean removedAny = false;
-        while (iter.hasPrevious()) {
-            SingleListener<?> single = iter.previous();
-            iter.remove();
-            removedAny = true;
-            onRemoveListener(single);
-        }
-        if (removedAny) {
-            packedListeners = listeners.toArray(new SingleListener[0]);
-        }
+        removeAll(listeners.toArray(EMPTY_LISTENER_ARRAY));
     }
 
     @Override
     public void removeListeners(Object key) {
-        ListIterator<SingleListener<?>> iter = listeners.listIterator(listeners.size());
-        boolean removedAny = false;
-        while (iter.hasPrevious()) {
-            SingleListener<?> single = iter.previous();
-            if (single.key == key) {
-                iter.remove();
-                removedAny = true;
-                onRemoveListener(single);
-            }
+        List<SingleListener<?>> forKey = listenersByKey.get(key);
+        if (forKey != null) {
+            removeAll(forKey.toArray(EMPTY_LISTENER_ARRAY));
         }
-        if (removedAny) {
-            packedListeners = listeners.toArray(new SingleListener[0]);
+    }
+
+    /** Removes every listener in the given array (in reverse order), and only fires the removal events after all of
+     * them have been removed. */
+    private void removeAll(SingleListener<?>[] toRemove) {
+        startMutationBatch();
+        try {
+            for (int i = toRemove.length - 1; i >= 0; i--) {
+                SingleListener<?> single = toRemove[i];
+                if (single.isPresent) {
+                    onRemoveListener(single);
+                }
+            }
+        } finally {
+            endMutationBatch();
         }
     }
 
     private void onRemoveListener(SingleListener<?> single) {
-        single.isPresent = false;
+        unregister(single);
         if (eventCallLevel > 0) {
             listenersChanged.add(single);
             listenerChangedToAdd.add(false);
@@ -160,51 +302,66 @@ public class SimpleEventBus implements MultipartEventBus {
         }
     }
 
+    private void onClassListenerAdded(int classId) {
+        if (classId >= classListenerCounts.length) {
+            classListenerCounts = Arrays.copyOf(classListenerCounts, classId + 1);
+        }
+        if (classListenerCounts[classId]++ == 0) {
+            int word = classId >>> 6;
+            if (word >= classListenedFlags.length) {
+                classListenedFlags = Arrays.copyOf(classListenedFlags, word + 1);
+            }
+            classListenedFlags[word] |= 1L << (classId & 63);
+        }
+    }
+
+    private void onClassListenerRemoved(int classId) {
+        if (--classListenerCounts[classId] == 0) {
+            classListenedFlags[classId >>> 6] &= ~(1L << (classId & 63));
+        }
+    }
+
     @Override
     public boolean hasAnyListeners() {
-        return !listeners.isEmpty();
+        return listenerCount > 0;
     }
 
     @Override
     public List<ListenerInfo<?>> getListenersForKey(Object key) {
-        List<ListenerInfo<?>> list = new ArrayList<>();
-        for (SingleListener<?> single : listeners) {
-            if (single.key == key) {
-                list.add(single);
-            }
-        }
-        return list;
+        List<SingleListener<?>> forKey = listenersByKey.get(key);
+        return forKey == null ? new ArrayList<>() : new ArrayList<>(forKey);
     }
 
     @Override
     public boolean hasAnyListenersForKey(Object key) {
-        for (SingleListener<?> single : listeners) {
-            if (single.key == key) {
-                return true;
-            }
-        }
-        return false;
+        return listenersByKey.containsKey(key);
     }
 
     @Override
     public <E extends MultipartEvent> List<ListenerInfo<? extends E>> getListeners(Class<E> clazz) {
         List<ListenerInfo<? extends E>> list = new ArrayList<>();
-        for (SingleListener<?> single : listeners) {
-            if (single.clazz.isAssignableFrom(clazz)) {
-                list.add((ListenerInfo<? extends E>) single);
-            }
+        for (SingleListener<?> single : getDispatchArray(clazz)) {
+            list.add((ListenerInfo<? extends E>) single);
         }
         return list;
     }
 
-//    @Override
-//    public boolean hasAnyListenersFor(Class<? extends MultipartEvent> clazz) {
-//        // TODO Auto-generated method stub
-//        throw new AbstractMethodError("// TODO: Implement this!");
-//    }
+    @Override
+    public boolean hasAnyListenersFor(Class<? extends MultipartEvent> clazz) {
+        long[] mask = RECEIVER_MASKS.get(clazz);
+        long[] flags = classListenedFlags;
+        int length = Math.min(mask.length, flags.length);
+        for (int i = 0; i < length; i++) {
+            if ((mask[i] & flags[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     public List<? extends ListenerInfo<?>> getAllListeners() {
+        ensurePacked();
         return Collections.unmodifiableList(listeners);
     }
 
@@ -213,12 +370,14 @@ public class SimpleEventBus implements MultipartEventBus {
         final Object key;
         final Class<E> clazz;
         final EventListener<E> listener;
+        final int classId;
         boolean isPresent = true;
 
         public SingleListener(Object key, Class<E> clazz, EventListener<E> listener) {
             this.key = key;
             this.clazz = clazz;
             this.listener = listener;
+            this.classId = CLASS_IDS.get(clazz);
         }
 
         @Override
@@ -238,17 +397,15 @@ public class SimpleEventBus implements MultipartEventBus {
 
         @Override
         public void remove() {
-            listeners.remove(this);
-            onRemoveListener(this);
-            packedListeners = listeners.toArray(new SingleListener[0]);
+            if (isPresent) {
+                onRemoveListener(this);
+            }
         }
 
-        boolean onEvent(MultipartEvent event) {
-            if (clazz.isInstance(event)) {
-                listener.onEvent(clazz.cast(event));
-                return true;
-            }
-            return false;
+        /** Only called with events that have already been matched against {@link #clazz} by
+         * {@link SimpleEventBus#getDispatchArray(Class)}. */
+        void onEvent(MultipartEvent event) {
+            listener.onEvent(clazz.cast(event));
         }
 
         @Override
@@ -8,6 +8,7 @@
 package alexiil.mc.lib.multipart.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -16,11 +17,38 @@ import java.util.Objects;
 
 import alexiil.mc.lib.multipart.api.MultipartContainer;
 import alexiil.mc.lib.multipart.api.property.MultipartProperty;
+import alexiil.mc.lib.multipart.api.property.MultipartProperty.IntegerBoundProperty;
+import alexiil.mc.lib.multipart.api.property.MultipartProperty.PreferedBooleanProperty;
 import alexiil.mc.lib.multipart.api.property.MultipartPropertyContainer;
 import alexiil.mc.lib.multipart.api.property.PartPropertyChangedEvent;
+import alexiil.mc.lib.multipart.api.property.PropertyChangeListener;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
 public class SimplePropertyContainer implements MultipartPropertyContainer {
 
+    /** The largest range (max - min) of an {@link IntegerBoundProperty} that will be stored in an
+     * {@link IntBoundContainer}. */
+    private static final int MAX_BUCKET_RANGE = 64;
+
+    /** True if the given property class doesn't override {@link MultipartProperty#combine(List)} from either
+     * {@link IntegerBoundProperty} or {@link PreferedBooleanProperty}, so it's safe to combine values incrementally
+     * rather than calling it. */
+    private static final ClassValue<Boolean> USES_BUILTIN_COMBINE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> declaring = type.getMethod("combine", List.class).getDeclaringClass();
+                return declaring == IntegerBoundProperty.class || declaring == PreferedBooleanProperty.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final ChangeListener[] EMPTY_CHANGE_LISTENERS = new ChangeListener[0];
+
     public final PartContainer container;
     private final Map<MultipartProperty<?>, InternalContainer<?>> properties = new IdentityHashMap<>();
 
@@ -39,7 +67,7 @@ public class SimplePropertyContainer implements MultipartPropertyContainer {
         if (ic == null) {
             return property.defaultValue;
         } else {
-            return property.clazz.cast(ic.combinedValue);
+            return property.clazz.cast(ic.getCombinedValue());
         }
     }
 
@@ -53,12 +81,12 @@ public class SimplePropertyContainer implements MultipartPropertyContainer {
             if (Objects.equals(value, property.defaultValue)) {
                 return;
             }
-            ic = new InternalContainer<>(property);
+            ic = createContainer(property);
             properties.put(property, ic);
         }
         ic.setUnknownValue(key, value);
-        if (value == null && ic.values.isEmpty()) {
-            InternalContainer<?> removed = properties.remove(key);
+        if (ic.canBeRemoved()) {
+            InternalContainer<?> removed = properties.remove(property);
             assert removed == ic;
         }
     }
@@ -74,26 +102,210 @@ public class SimplePropertyContainer implements MultipartPropertyContainer {
         while (iter.hasNext()) {
             InternalContainer<?> ic = iter.next();
             ic.setValue(key, null);
-            if (ic.values.isEmpty()) {
+            if (ic.canBeRemoved()) {
+                iter.remove();
+            }
+        }
+    }
+
+    @Override
+    public <T> void addChangeListener(Object key, MultipartProperty<T> property, PropertyChangeListener<T> listener) {
+        addChangeListener(property, new ChangeListener(key, listener, null, null));
+    }
+
+    @Override
+    public void addIntChangeListener(
+        Object key, MultipartProperty<Integer> property, PropertyChangeListener.OfInt listener
+    ) {
+        addChangeListener(property, new ChangeListener(key, null, listener, null));
+    }
+
+    @Override
+    public void addBooleanChangeListener(
+        Object key, MultipartProperty<Boolean> property, PropertyChangeListener.OfBoolean listener
+    ) {
+        addChangeListener(property, new ChangeListener(key, null, null, listener));
+    }
+
+    private void addChangeListener(MultipartProperty<?> property, ChangeListener listener) {
+        InternalContainer<?> ic = properties.get(property);
+        if (ic == null) {
+            ic = createContainer(property);
+            properties.put(property, ic);
+        }
+        ChangeListener[] listeners = ic.changeListeners;
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        ic.changeListeners = listeners;
+    }
+
+    @Override
+    public void removeChangeListeners(Object key) {
+        Iterator<InternalContainer<?>> iter = properties.values().iterator();
+        while (iter.hasNext()) {
+            InternalContainer<?> ic = iter.next();
+            ic.removeChangeListeners(key);
+            if (ic.canBeRemoved()) {
+                iter.remove();
+            }
+        }
+    }
+
+    /** Removes every change listener, but keeps every value. */
+    void clearChangeListeners() {
+        Iterator<InternalContainer<?>> iter = properties.values().iterator();
+        while (iter.hasNext()) {
+            InternalContainer<?> ic = iter.next();
+            ic.changeListeners = EMPTY_CHANGE_LISTENERS;
+            if (ic.canBeRemoved()) {
                 iter.remove();
             }
         }
     }
 
-    private class InternalContainer<T> {
+    @SuppressWarnings("unchecked")
+    private <T> InternalContainer<T> createContainer(MultipartProperty<T> property) {
+        if (USES_BUILTIN_COMBINE.get(property.getClass())) {
+            if (property instanceof IntegerBoundProperty intProp
+                && (long) intProp.max - intProp.min <= MAX_BUCKET_RANGE) {
+                return (InternalContainer<T>) new IntBoundContainer(intProp);
+            }
+            if (property instanceof PreferedBooleanProperty boolProp) {
+                return (InternalContainer<T>) new PreferedBooleanContainer(boolProp);
+            }
+        }
+        return new GenericContainer<>(property);
+    }
+
+    private <T> void fireChangedEvent(MultipartProperty<T> property, T oldCombined, T newCombined) {
+        if (container.eventBus.hasAnyListenersFor(PartPropertyChangedEvent.class)) {
+            container.fireEvent(new PartPropertyChangedEvent<>(property, oldCombined, newCombined));
+        }
+    }
+
+    /** A single listener added by one of the addXChangeListener methods. Exactly one of the listener fields is
+     * non-null. */
+    private static final class ChangeListener {
+        final Object key;
+        final PropertyChangeListener<?> listener;
+        final PropertyChangeListener.OfInt intListener;
+        final PropertyChangeListener.OfBoolean booleanListener;
+
+        ChangeListener(
+            Object key, PropertyChangeListener<?> listener, PropertyChangeListener.OfInt intListener,
+            PropertyChangeListener.OfBoolean booleanListener
+        ) {
+            this.key = key;
+            this.listener = listener;
+            this.intListener = intListener;
+            this.booleanListener = booleanListener;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void onChange(Object oldValue, Object newValue) {
+            if (listener != null) {
+                ((PropertyChangeListener) listener).onChange(oldValue, newValue);
+            } else if (intListener != null) {
+                intListener.onChange((Integer) oldValue, (Integer) newValue);
+            } else {
+                booleanListener.onChange((Boolean) newValue);
+            }
+        }
+
+        void onIntChange(int oldValue, int newValue) {
+            if (intListener != null) {
+                intListener.onChange(oldValue, newValue);
+            } else {
+                onChange(oldValue, newValue);
+            }
+        }
+
+        void onBooleanChange(boolean newValue) {
+            if (booleanListener != null) {
+                booleanListener.onChange(newValue);
+            } else {
+                onChange(!newValue, newValue);
+            }
+        }
+    }
+
+    private abstract class InternalContainer<T> {
         final MultipartProperty<T> property;
-        final Map<Object, T> values = new IdentityHashMap<>();
-        T combinedValue;
+        ChangeListener[] changeListeners = EMPTY_CHANGE_LISTENERS;
 
         InternalContainer(MultipartProperty<T> property) {
             this.property = property;
-            combinedValue = property.defaultValue;
         }
 
-        void setUnknownValue(Object key, Object value) {
+        void removeChangeListeners(Object key) {
+            int count = 0;
+            for (ChangeListener listener : changeListeners) {
+                if (listener.key != key) {
+                    count++;
+                }
+            }
+            if (count == changeListeners.length) {
+                return;
+            }
+            ChangeListener[] kept = new ChangeListener[count];
+            int index = 0;
+            for (ChangeListener listener : changeListeners) {
+                if (listener.key != key) {
+                    kept[index++] = listener;
+                }
+            }
+            changeListeners = kept;
+        }
+
+        /** Informs the {@link PartContainer}, every {@link ChangeListener}, and then the event bus that the combined
+         * value has changed. */
+        void onCombinedValueChanged(T oldCombined, T newCombined) {
+            container.onPropertyChanged(property, oldCombined, newCombined);
+            callChangeListeners(oldCombined, newCombined);
+            fireChangedEvent(property, oldCombined, newCombined);
+        }
+
+        /** Calls every {@link ChangeListener}. Overridden to call the specialised listeners directly. */
+        void callChangeListeners(T oldCombined, T newCombined) {
+            for (ChangeListener listener : changeListeners) {
+                listener.onChange(oldCombined, newCombined);
+            }
+        }
+
+        final void setUnknownValue(Object key, Object value) {
             setValue(key, property.clazz.cast(value));
         }
 
+        abstract T getCombinedValue();
+
+        /** @param value The new value, or null to clear it. */
+        abstract void setValue(Object key, T value);
+
+        /** @return True if this doesn't hold any values, and isn't worth keeping around for later. */
+        abstract boolean canBeRemoved();
+    }
+
+    /** Stores every value separately, and calls {@link MultipartProperty#combine(List)} whenever any of them change. */
+    private final class GenericContainer<T> extends InternalContainer<T> {
+        final Map<Object, T> values = new IdentityHashMap<>();
+        T combinedValue;
+
+        GenericContainer(MultipartProperty<T> property) {
+            super(property);
+            combinedValue = property.defaultValue;
+        }
+
+        @Override
+        T getCombinedValue() {
+            return combinedValue;
+        }
+
+        @Override
+        boolean canBeRemoved() {
+            return values.isEmpty() && changeListeners.length == 0;
+        }
+
+        @Override
         void setValue(Object key, T value) {
             if (value == null) {
                 value = property.defaultValue;
@@ -128,8 +340,123 @@ public class SimplePropertyContainer implements MultipartPropertyContainer {
                 return;
             }
 
-            container.onPropertyChanged(property, oldCombined, combinedValue);
-            container.fireEvent(new PartPropertyChangedEvent<>(property, oldCombined, combinedValue));
+            onCombinedValueChanged(oldCombined, combinedValue);
+        }
+    }
+
+    /** Combines the values of an {@link IntegerBoundProperty} incrementally, by counting how many values are at each
+     * level between min and max. Unlike the {@link GenericContainer} this always follows
+     * {@link IntegerBoundProperty#combine(List)} - even if there's only a single value it's clamped to max. */
+    private final class IntBoundContainer extends InternalContainer<Integer> {
+        final int min, max, defaultValue;
+        final Reference2IntOpenHashMap<Object> values = new Reference2IntOpenHashMap<>();
+
+        /** The number of values at each level, from min to max (inclusive). Values above max are counted as max, and
+         * values below min are ignored. */
+        final int[] counts;
+        int combinedValue;
+
+        IntBoundContainer(IntegerBoundProperty property) {
+            super(property);
+            min = property.min;
+            max = property.max;
+            defaultValue = property.defaultValue;
+            values.defaultReturnValue(defaultValue);
+            counts = new int[max - min + 1];
+            combinedValue = defaultValue;
+        }
+
+        @Override
+        Integer getCombinedValue() {
+            return combinedValue;
+        }
+
+        @Override
+        boolean canBeRemoved() {
+            // Always kept, as the values are likely to be set again soon
+            return false;
+        }
+
+        @Override
+        void setValue(Object key, Integer boxed) {
+            int value = boxed == null ? defaultValue : boxed;
+            int old = value == defaultValue ? values.removeInt(key) : values.put(key, value);
+            if (old == value) {
+                return;
+            }
+            if (old != defaultValue && old >= min) {
+                counts[Math.min(old, max) - min]--;
+            }
+            if (value != defaultValue && value >= min) {
+                counts[Math.min(value, max) - min]++;
+            }
+
+            int oldCombined = combinedValue;
+            combinedValue = defaultValue;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    combinedValue = i == counts.length - 1 ? max : Math.max(defaultValue, min + i);
+                    break;
+                }
+            }
+
+            if (oldCombined != combinedValue) {
+                onCombinedValueChanged(oldCombined, combinedValue);
+            }
+        }
+
+        @Override
+        void callChangeListeners(Integer oldCombined, Integer newCombined) {
+            int oldValue = oldCombined;
+            int newValue = newCombined;
+            for (ChangeListener listener : changeListeners) {
+                listener.onIntChange(oldValue, newValue);
+            }
+        }
+    }
+
+    /** Combines the values of a {@link PreferedBooleanProperty} incrementally, by tracking which keys have set the
+     * non-default value. */
+    private final class PreferedBooleanContainer extends InternalContainer<Boolean> {
+        final boolean defaultValue;
+        final ReferenceOpenHashSet<Object> preferredKeys = new ReferenceOpenHashSet<>();
+
+        PreferedBooleanContainer(PreferedBooleanProperty property) {
+            super(property);
+            defaultValue = property.defaultValue;
+        }
+
+        @Override
+        Boolean getCombinedValue() {
+            return preferredKeys.isEmpty() ? defaultValue : !defaultValue;
+        }
+
+        @Override
+        boolean canBeRemoved() {
+            return false;
+        }
+
+        @Override
+        void setValue(Object key, Boolean value) {
+            boolean isPreferred = value != null && value.booleanValue() != defaultValue;
+            boolean wasEmpty = preferredKeys.isEmpty();
+            if (isPreferred) {
+                preferredKeys.add(key);
+            } else {
+                preferredKeys.remove(key);
+            }
+            if (wasEmpty != preferredKeys.isEmpty()) {
+                boolean newCombined = wasEmpty ? !defaultValue : defaultValue;
+                onCombinedValueChanged(!newCombined, newCombined);
+            }
+        }
+
+        @Override
+        void callChangeListeners(Boolean oldCombined, Boolean newCombined) {
+            boolean newValue = newCombined;
+            for (ChangeListener listener : changeListeners) {
+                listener.onBooleanChange(newValue);
+            }
         }
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import alexiil.mc.lib.net.impl.ActiveMinecraftConnection;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+/** Caches the connection of every player watching each server-side {@link MultipartBlockEntity} that sends a message,
+ * as chunk tracking queries aren't free and a single part change can send several messages. The whole cache is
+ * cleared at the end of every server tick (after {@link OutboundMessageQueue} has been flushed) so it never holds on
+ * to block entities or players for longer than that. Only accessed from the server thread. */
+final class WatchingConnections {
+
+    private static final Reference2ObjectOpenHashMap<MultipartBlockEntity, List<PlayerConnection>> CACHE
+        = new Reference2ObjectOpenHashMap<>();
+
+    private WatchingConnections() {}
+
+    /** @return The connection of every player watching the given block entity, as of the first call this tick. */
+    static List<PlayerConnection> get(MultipartBlockEntity blockEntity) {
+        List<PlayerConnection> list = CACHE.get(blockEntity);
+        if (list == null) {
+            list = new ArrayList<>();
+            for (ServerPlayerEntity player : blockEntity.getPlayersWatching()) {
+                ActiveMinecraftConnection connection = MultipartBlockEntity.getPlayerConnection(player);
+                if (connection != null) {
+                    list.add(new PlayerConnection(player, connection));
+                }
+            }
+            CACHE.put(blockEntity, list);
+        }
+        return list;
+    }
+
+    static void clear() {
+        CACHE.clear();
+    }
+
+    static final class PlayerConnection {
+        final ServerPlayerEntity player;
+        final ActiveMinecraftConnection connection;
+
+        PlayerConnection(ServerPlayerEntity player, ActiveMinecraftConnection connection) {
+            this.player = player;
+            this.connection = connection;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.google.common.collect.ImmutableList;
 import net.minecraft.util.shape.VoxelShape;
 
 import alexiil.mc.lib.multipart.api.render.PartModelKey;
+import alexiil.mc.lib.multipart.impl.CullFaces;
 
 public final class PartModelData {
 
@@ -20,13 +21,15 @@ public final class PartModelData {
     public final VoxelShape outlineShape;
     public final VoxelShape sidesShape;
     public final ImmutableList<PartModelKey> keys;
+    public final CullFaces cullFaces;
 
     public PartModelData(VoxelShape cullingShape, VoxelShape collisionShape, VoxelShape outlineShape,
-                         VoxelShape sidesShape, ImmutableList<PartModelKey> keys) {
+                         VoxelShape sidesShape, ImmutableList<PartModelKey> keys, CullFaces cullFaces) {
         this.cullingShape = cullingShape;
         this.collisionShape = collisionShape;
         this.outlineShape = outlineShape;
         this.sidesShape = sidesShape;
         this.keys = keys;
+        this.cullFaces = cullFaces;
     }
 }
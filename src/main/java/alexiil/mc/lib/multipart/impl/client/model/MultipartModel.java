@@ -188,7 +188,7 @@ public final class MultipartModel
             }
 
             PartRenderContext ctx = new NormalPartRenderContext(context, false, randomSupplier);
-            ImmutableList<PartModelKey> keys = container.getPartModelKeys();
+            ImmutableList<PartModelKey> keys = container.getSnapshot().modelKeys;
             if (blockView instanceof RenderAttachedBlockView) {
                 Object data = ((RenderAttachedBlockView) blockView).getBlockEntityRenderAttachment(pos);
                 if (data instanceof PartModelData) {
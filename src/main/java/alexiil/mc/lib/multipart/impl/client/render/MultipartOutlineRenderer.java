@@ -7,6 +7,7 @@
  */
 package alexiil.mc.lib.multipart.impl.client.render;
 
+import alexiil.mc.lib.multipart.impl.MultipartBlock;
 import alexiil.mc.lib.multipart.mixin.api.IBlockMultipart;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -42,6 +43,27 @@ public final class MultipartOutlineRenderer implements WorldRenderEvents.BlockOu
             BlockState state = blockOutlineContext.blockState();
             Block block = state.getBlock();
 
+            if (block instanceof MultipartBlock multipart) {
+                BlockPos blockPos = blockOutlineContext.blockPos();
+                double[] edges = PartOutlineCache.getOutlineEdges(multipart, state, worldRenderContext.world(),
+                        blockPos, hit.getPos());
+
+                if (edges != null && edges.length > 0) {
+                    VertexConsumer linesConsumer =
+                            Objects.requireNonNull(worldRenderContext.consumers(), "consumers is null")
+                                    .getBuffer(RenderLayer.getLines());
+                    drawEdges(worldRenderContext.matrixStack(), linesConsumer, edges,
+                            blockPos.getX() - blockOutlineContext.cameraX(),
+                            blockPos.getY() - blockOutlineContext.cameraY(),
+                            blockPos.getZ() - blockOutlineContext.cameraZ());
+
+                    return false;
+                }
+                return true;
+            }
+
+            PartOutlineCache.clear();
+
             if (block instanceof IBlockMultipart<?> multipart) {
                 BlockPos blockPos = blockOutlineContext.blockPos();
                 VoxelShape partShape =
@@ -63,6 +85,27 @@ public final class MultipartOutlineRenderer implements WorldRenderEvents.BlockOu
         return true;
     }
 
+    private static void drawEdges(MatrixStack matrices, VertexConsumer vertexConsumer, double[] edges,
+                                  double offsetX, double offsetY, double offsetZ) {
+        MatrixStack.Entry entry = matrices.peek();
+        for (int i = 0; i < edges.length; i += PartOutlineCache.EDGE_STRIDE) {
+            float nx = (float) edges[i + 6];
+            float ny = (float) edges[i + 7];
+            float nz = (float) edges[i + 8];
+
+            vertexConsumer.vertex(entry.getPositionMatrix(), (float) (edges[i] + offsetX),
+                            (float) (edges[i + 1] + offsetY), (float) (edges[i + 2] + offsetZ))
+                    .color(0f, 0f, 0f, 0.4f)
+                    .normal(entry.getNormalMatrix(), nx, ny, nz)
+                    .next();
+            vertexConsumer.vertex(entry.getPositionMatrix(), (float) (edges[i + 3] + offsetX),
+                            (float) (edges[i + 4] + offsetY), (float) (edges[i + 5] + offsetZ))
+                    .color(0f, 0f, 0f, 0.4f)
+                    .normal(entry.getNormalMatrix(), nx, ny, nz)
+                    .next();
+        }
+    }
+
     private static void drawShapeOutline(MatrixStack matrices, VertexConsumer vertexConsumer, VoxelShape voxelShape,
                                          double offsetX, double offsetY, double offsetZ) {
         MatrixStack.Entry entry = matrices.peek();
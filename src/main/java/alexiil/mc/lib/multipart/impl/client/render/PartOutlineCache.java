@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl.client.render;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+import alexiil.mc.lib.multipart.impl.MultipartBlock;
+import alexiil.mc.lib.multipart.impl.MultipartBlockEntity;
+import alexiil.mc.lib.multipart.impl.PartContainer;
+import alexiil.mc.lib.multipart.impl.TransientPartIdentifier;
+import alexiil.mc.lib.multipart.impl.TransientPartIdentifier.IdSubPart;
+
+/** Caches the selection outline of the targeted part, so that it doesn't need to be looked up (and it's edges
+ * normalised) every frame. The targeted part is only looked up again when the hit vector or any of the container's
+ * shapes change, and the edges are only recomputed when the targeted part or subpart changes, or every frame if
+ * {@link AbstractPart#canCacheDynamicShape()} returns false. */
+@Environment(EnvType.CLIENT)
+public final class PartOutlineCache {
+
+    /** The number of doubles used per edge: the start position, end position, and normal. */
+    public static final int EDGE_STRIDE = 9;
+
+    private static final double[] NO_EDGES = new double[0];
+
+    private static PartContainer container;
+    private static BlockPos pos;
+    private static Vec3d hitVec;
+    private static int shapeVersion;
+    private static TransientPartIdentifier target;
+    private static boolean edgesValid;
+    private static double[] edges = NO_EDGES;
+
+    private PartOutlineCache() {}
+
+    /** @return The edges of the targeted part's outline, relative to the given position and stored as
+     *         {@link #EDGE_STRIDE} doubles per edge. Null if no part is targeted (or the block entity is missing). The
+     *         returned array must not be modified. */
+    @Nullable
+    public static double[] getOutlineEdges(MultipartBlock block, BlockState state, BlockView view, BlockPos blockPos,
+        Vec3d hit) {
+
+        BlockEntity be = view.getBlockEntity(blockPos);
+        if (!(be instanceof MultipartBlockEntity multi)) {
+            clear();
+            return null;
+        }
+
+        PartContainer current = multi.getContainer();
+        boolean sameContainer
+            = current == container && current.getShapeVersion() == shapeVersion && blockPos.equals(pos);
+        TransientPartIdentifier newTarget;
+        if (sameContainer && hit.equals(hitVec)) {
+            newTarget = target;
+        } else {
+            newTarget = block.getMultipartTarget(state, view, blockPos, hit);
+        }
+
+        if (newTarget == null) {
+            clear();
+            return null;
+        }
+
+        if (!sameContainer || !isSameTarget(newTarget, target)) {
+            edgesValid = false;
+        }
+
+        container = current;
+        pos = blockPos.toImmutable();
+        hitVec = hit;
+        shapeVersion = current.getShapeVersion();
+        target = newTarget;
+
+        if (!edgesValid) {
+            edges = computeEdges(block.getTargetOutline(newTarget, hit));
+            edgesValid = newTarget.part.canCacheDynamicShape();
+        }
+        return edges;
+    }
+
+    /** Called at the end of every client tick, to forget the cached target once the player stops looking at it's
+     * block or the world changes. */
+    public static void onClientTick(MinecraftClient client) {
+        if (container == null) {
+            return;
+        }
+        HitResult hit = client.crosshairTarget;
+        if (client.world == null || hit == null || hit.getType() != HitResult.Type.BLOCK
+            || container.getMultipartWorld() != client.world) {
+            clear();
+        }
+    }
+
+    /** {@link TransientPartIdentifier#equals(Object)} compares it's extra data by identity, which is different for
+     * every lookup, so this only compares the part and (if present) the subpart. Any additional parts don't change
+     * the outline. */
+    private static boolean isSameTarget(TransientPartIdentifier a, @Nullable TransientPartIdentifier b) {
+        if (b == null || a.part != b.part) {
+            return false;
+        }
+        if (a.extra instanceof IdSubPart<?> subA) {
+            return b.extra instanceof IdSubPart<?> subB && Objects.equals(subA.subpart, subB.subpart);
+        }
+        return !(b.extra instanceof IdSubPart<?>);
+    }
+
+    /** Forgets the cached target, so that the container (and it's world) isn't kept loaded. */
+    public static void clear() {
+        container = null;
+        pos = null;
+        hitVec = null;
+        target = null;
+        edgesValid = false;
+        edges = NO_EDGES;
+    }
+
+    private static double[] computeEdges(VoxelShape shape) {
+        if (shape.isEmpty()) {
+            return NO_EDGES;
+        }
+        double[][] result = { new double[EDGE_STRIDE * 12] };
+        int[] count = { 0 };
+        shape.forEachEdge((startX, startY, startZ, endX, endY, endZ) -> {
+            int i = count[0] * EDGE_STRIDE;
+            if (i + EDGE_STRIDE > result[0].length) {
+                result[0] = Arrays.copyOf(result[0], result[0].length * 2);
+            }
+            float nx = (float) (endX - startX);
+            float ny = (float) (endY - startY);
+            float nz = (float) (endZ - startZ);
+
+            float t = MathHelper.inverseSqrt(nx * nx + ny * ny + nz * nz);
+
+            double[] array = result[0];
+            array[i] = startX;
+            array[i + 1] = startY;
+            array[i + 2] = startZ;
+            array[i + 3] = endX;
+            array[i + 4] = endY;
+            array[i + 5] = endZ;
+            array[i + 6] = nx * t;
+            array[i + 7] = ny * t;
+            array[i + 8] = nz * t;
+            count[0]++;
+        });
+        return Arrays.copyOf(result[0], count[0] * EDGE_STRIDE);
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.mixin.api;
+
+import javax.annotation.Nullable;
+
+/** Implemented by {@link net.minecraft.world.chunk.WorldChunk} to store a side table of every multipart container in
+ * each chunk section, so that shape lookups don't need to go through the chunk's block entity map. */
+public interface IWorldChunkMultipart {
+
+    /** @return The container stored at the given section and local index (as returned by
+     *         {@link net.minecraft.util.math.ChunkSectionPos#packLocal}), or null if none is stored. */
+    @Nullable
+    Object libmultipart_getContainer(int sectionIndex, int localIndex);
+
+    void libmultipart_setContainer(int sectionIndex, int localIndex, @Nullable Object container);
+}
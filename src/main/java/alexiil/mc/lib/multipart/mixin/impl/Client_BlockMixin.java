@@ -21,6 +21,8 @@ import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.world.BlockView;
 
+import alexiil.mc.lib.multipart.impl.CullFaces;
+import alexiil.mc.lib.multipart.impl.MultipartBlock;
 import alexiil.mc.lib.multipart.mixin.api.IBlockDynamicCull;
 
 @Mixin(Block.class)
@@ -42,14 +44,18 @@ public class Client_BlockMixin {
             (block instanceof IBlockDynamicCull && ((IBlockDynamicCull) block).hasDynamicCull(state))
                 || (oBlock instanceof IBlockDynamicCull && ((IBlockDynamicCull) oBlock).hasDynamicCull(oState))
         ) {
-            // TODO: allow parts to set opaqueness
-            if (oState.isOpaque()) {
-                VoxelShape voxelShape = state.getCullingFace(view, pos, facing);
-                VoxelShape voxelShape2 = oState.getCullingFace(view, offset, facing.getOpposite());
-                ci.setReturnValue(VoxelShapes.matchesAnywhere(voxelShape, voxelShape2, BooleanBiFunction.ONLY_FIRST));
-            } else {
-                ci.setReturnValue(true);
+            CullFaces faces = MultipartBlock.getCullFaces(state, view, pos);
+            CullFaces oFaces = MultipartBlock.getCullFaces(oState, view, offset);
+            Boolean result = CullFaces.shouldDrawSide(faces, facing, oFaces, oState.isOpaque());
+            if (result != null) {
+                ci.setReturnValue(result);
+                return;
             }
+            Direction opposite = facing.getOpposite();
+            VoxelShape voxelShape = faces != null ? faces.getFace(facing) : state.getCullingFace(view, pos, facing);
+            VoxelShape voxelShape2
+                = oFaces != null ? oFaces.getFace(opposite) : oState.getCullingFace(view, offset, opposite);
+            ci.setReturnValue(VoxelShapes.matchesAnywhere(voxelShape, voxelShape2, BooleanBiFunction.ONLY_FIRST));
         }
     }
 }
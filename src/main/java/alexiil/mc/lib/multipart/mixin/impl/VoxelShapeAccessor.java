@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.mixin.impl;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelSet;
+import net.minecraft.util.shape.VoxelShape;
+
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+
+/** Used by the shape cache to compare shapes by their exact internal layout, rather than by their bounding boxes. */
+@Mixin(VoxelShape.class)
+public interface VoxelShapeAccessor {
+
+    @Accessor
+    VoxelSet getVoxels();
+
+    @Invoker
+    DoubleList callGetPointPositions(Direction.Axis axis);
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.mixin.impl;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.world.World;
+
+/** Used by the container lookup to only modify it's side table from the thread that owns the world. */
+@Mixin(World.class)
+public interface WorldAccessor {
+
+    @Accessor
+    Thread getThread();
+}
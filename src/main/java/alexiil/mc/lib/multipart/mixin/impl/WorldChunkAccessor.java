@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.mixin.impl;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/** Used by dormant multipart block entities to leave (and re-join) the world's block entity ticking list. */
+@Mixin(WorldChunk.class)
+public interface WorldChunkAccessor {
+
+    @Invoker
+    void callUpdateTicker(BlockEntity blockEntity);
+
+    @Invoker
+    void callRemoveBlockEntityTicker(BlockPos pos);
+}
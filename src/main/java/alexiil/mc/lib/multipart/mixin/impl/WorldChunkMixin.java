@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.mixin.impl;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import net.minecraft.world.chunk.WorldChunk;
+
+import alexiil.mc.lib.multipart.mixin.api.IWorldChunkMultipart;
+
+@Mixin(WorldChunk.class)
+public abstract class WorldChunkMixin implements IWorldChunkMultipart {
+
+    /** Indexed by section index, and then the packed local position. Each section's array is only allocated once a
+     * container is stored in it. */
+    @Unique
+    private Object[][] libmultipart_containers;
+
+    @Override
+    public Object libmultipart_getContainer(int sectionIndex, int localIndex) {
+        Object[][] sections = libmultipart_containers;
+        if (sections == null || sectionIndex < 0 || sectionIndex >= sections.length) {
+            return null;
+        }
+        Object[] section = sections[sectionIndex];
+        return section == null ? null : section[localIndex];
+    }
+
+    @Override
+    public void libmultipart_setContainer(int sectionIndex, int localIndex, Object container) {
+        Object[][] sections = libmultipart_containers;
+        if (sections == null) {
+            if (container == null) {
+                return;
+            }
+            sections = libmultipart_containers = new Object[((WorldChunk) (Object) this).countVerticalSections()][];
+        }
+        if (sectionIndex < 0 || sectionIndex >= sections.length) {
+            return;
+        }
+        Object[] section = sections[sectionIndex];
+        if (section == null) {
+            if (container == null) {
+                return;
+            }
+            section = sections[sectionIndex] = new Object[16 * 16 * 16];
+        }
+        section[localIndex] = container;
+    }
+}
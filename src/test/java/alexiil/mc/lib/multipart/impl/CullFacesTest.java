@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShapes;
+
+public class CullFacesTest {
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    /** A non-multipart block with an empty face next to an empty multipart face. Before the cull faces were cached
+     * this returned false (as the empty face doesn't match anywhere), but vanilla always draws a face against an
+     * empty neighbour face, and so does this now. */
+    @Test
+    public void testEmptyFaceAgainstEmptyMultipartFace() {
+        assertTrue(CullFaces.EMPTY.isEmpty(Direction.EAST));
+        assertEquals(Boolean.TRUE, CullFaces.shouldDrawSide(null, Direction.WEST, CullFaces.EMPTY, true));
+    }
+
+    @Test
+    public void testEmptyMultipartFace() {
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(CullFaces.EMPTY, Direction.UP, CullFaces.FULL, true));
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(CullFaces.EMPTY, Direction.UP, null, true));
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(CullFaces.EMPTY, Direction.UP, CullFaces.EMPTY, true));
+        assertEquals(Boolean.TRUE, CullFaces.shouldDrawSide(CullFaces.EMPTY, Direction.UP, null, false));
+    }
+
+    @Test
+    public void testFullNeighbourFace() {
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(null, Direction.NORTH, CullFaces.FULL, true));
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(CullFaces.FULL, Direction.NORTH, CullFaces.FULL, true));
+    }
+
+    @Test
+    public void testPartialFaces() {
+        CullFaces bottom = CullFaces.of(VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1));
+        assertTrue(bottom.isFull(Direction.DOWN));
+        assertTrue(bottom.isEmpty(Direction.UP));
+
+        // Only the neighbour's face in the opposite direction matters
+        assertNull(CullFaces.shouldDrawSide(CullFaces.FULL, Direction.EAST, bottom, true));
+        assertEquals(Boolean.FALSE, CullFaces.shouldDrawSide(CullFaces.FULL, Direction.UP, bottom, true));
+        assertEquals(Boolean.TRUE, CullFaces.shouldDrawSide(CullFaces.FULL, Direction.DOWN, bottom, true));
+        assertNull(CullFaces.shouldDrawSide(bottom, Direction.EAST, null, true));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.shape.VoxelShapes;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+
+public class OutboundMessageQueueTest {
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testQueuedOrder() {
+        PartContainer container = TestContainers.create();
+        AbstractPart a = TestContainers.addPart(container, VoxelShapes.fullCube());
+        AbstractPart b = TestContainers.addPart(container, VoxelShapes.fullCube());
+        List<Object> sent = new ArrayList<>();
+        OutboundMessageQueue queue = new OutboundMessageQueue(container, sent::add);
+
+        assertTrue(queue.offer(null, container, PartContainer.NET_REDRAW));
+        assertTrue(queue.offer(null, a, AbstractPart.NET_RENDER_DATA));
+        assertTrue(queue.offer(null, container, PartContainer.NET_RECALCULATE_SHAPE));
+        assertTrue(queue.offer(null, b, AbstractPart.NET_RENDER_DATA));
+        queue.flush();
+
+        assertEquals(List.of(PartContainer.NET_REDRAW, a, PartContainer.NET_RECALCULATE_SHAPE, b), sent);
+
+        sent.clear();
+        queue.flush();
+        assertTrue(sent.isEmpty());
+    }
+
+    /** A message that is queued again is only sent once, at the position of it's latest copy. */
+    @Test
+    public void testRequeuedMessageMovesToEnd() {
+        PartContainer container = TestContainers.create();
+        AbstractPart a = TestContainers.addPart(container, VoxelShapes.fullCube());
+        List<Object> sent = new ArrayList<>();
+        OutboundMessageQueue queue = new OutboundMessageQueue(container, sent::add);
+
+        queue.offer(null, a, AbstractPart.NET_RENDER_DATA);
+        queue.offer(null, container, PartContainer.NET_REDRAW);
+        queue.offer(null, container, PartContainer.NET_RECALCULATE_SHAPE);
+        queue.offer(null, a, AbstractPart.NET_RENDER_DATA);
+        queue.offer(null, container, PartContainer.NET_REDRAW);
+        queue.flush();
+
+        assertEquals(List.of(PartContainer.NET_RECALCULATE_SHAPE, a, PartContainer.NET_REDRAW), sent);
+    }
+
+    @Test
+    public void testUnqueuedMessages() {
+        PartContainer container = TestContainers.create();
+        PartContainer other = TestContainers.create();
+        AbstractPart otherPart = TestContainers.addPart(other, VoxelShapes.fullCube());
+        List<Object> sent = new ArrayList<>();
+        OutboundMessageQueue queue = new OutboundMessageQueue(container, sent::add);
+
+        assertFalse(queue.offer(null, other, PartContainer.NET_REDRAW));
+        assertFalse(queue.offer(null, otherPart, AbstractPart.NET_RENDER_DATA));
+        queue.flush();
+        assertTrue(sent.isEmpty());
+    }
+
+    /** Messages sent while the queue is being flushed are sent straight away rather than queued again. */
+    @Test
+    public void testOfferWhileFlushing() {
+        PartContainer container = TestContainers.create();
+        List<Object> sent = new ArrayList<>();
+        OutboundMessageQueue[] queue = new OutboundMessageQueue[1];
+        queue[0] = new OutboundMessageQueue(container, message -> {
+            sent.add(message);
+            assertFalse(queue[0].offer(null, container, PartContainer.NET_RECALCULATE_SHAPE));
+        });
+
+        queue[0].offer(null, container, PartContainer.NET_REDRAW);
+        queue[0].flush();
+        assertEquals(List.of(PartContainer.NET_REDRAW), sent);
+    }
+
+    @Test
+    public void testDiscard() {
+        PartContainer container = TestContainers.create();
+        List<Object> sent = new ArrayList<>();
+        OutboundMessageQueue queue = new OutboundMessageQueue(container, sent::add);
+
+        queue.offer(null, container, PartContainer.NET_REDRAW);
+        queue.discard();
+        queue.flush();
+        assertTrue(sent.isEmpty());
+    }
+}
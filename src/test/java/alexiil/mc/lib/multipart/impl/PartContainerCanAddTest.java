@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.function.BooleanBiFunction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+import alexiil.mc.lib.multipart.api.MultipartContainer.MultipartCreator;
+import alexiil.mc.lib.multipart.impl.TestContainers.ShapePart;
+
+/** Compares {@link PartContainer#canAdd(PartHolder, boolean)} (with it's bounding box broad phase and cached leftover
+ * shapes) against the full check that it replaced, for lots of random parts. */
+public class PartContainerCanAddTest {
+
+    private static final int TRIALS = 1000;
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testCanAddMatchesFullCheck() {
+        Random rand = new Random(18);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            PartContainer container = TestContainers.create();
+            List<AbstractPart> existing = new ArrayList<>();
+            int count = rand.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                ShapePart part = TestContainers.addPart(container, randomShape(rand));
+                part.canOverlap = rand.nextInt(4) != 0;
+                existing.add(part);
+            }
+
+            // Check the same container several times, so the cached leftover shapes are used
+            for (int offer = 0; offer < 4; offer++) {
+                PartHolder offered = TestContainers.createPart(container, randomShape(rand));
+                ((ShapePart) offered.part).canOverlap = rand.nextBoolean();
+                assertEquals(
+                    canAddFull(existing, offered.part), container.canAdd(offered, false), "Trial " + trial
+                );
+            }
+        }
+    }
+
+    /** Checks {@link PartContainer#offerNewParts(List, boolean)}, where every offered part is treated as if the
+     * earlier ones had already been added. */
+    @Test
+    public void testOfferNewPartsMatchesFullCheck() {
+        Random rand = new Random(1018);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            PartContainer container = TestContainers.create();
+            List<AbstractPart> parts = new ArrayList<>();
+            int count = rand.nextInt(3);
+            for (int i = 0; i < count; i++) {
+                parts.add(TestContainers.addPart(container, randomShape(rand)));
+            }
+
+            List<MultipartCreator> creators = new ArrayList<>();
+            boolean expected = true;
+            int offered = 1 + rand.nextInt(3);
+            for (int i = 0; i < offered; i++) {
+                VoxelShape shape = randomShape(rand);
+                boolean canOverlap = rand.nextInt(3) != 0;
+                creators.add(holder -> {
+                    ShapePart part = new ShapePart(holder, shape);
+                    part.canOverlap = canOverlap;
+                    return part;
+                });
+                if (expected) {
+                    AbstractPart part = TestContainers.createPart(container, shape).part;
+                    ((ShapePart) part).canOverlap = canOverlap;
+                    expected = canAddFull(parts, part);
+                    parts.add(part);
+                }
+            }
+
+            assertEquals(expected, container.offerNewParts(creators, false) != null, "Trial " + trial);
+        }
+    }
+
+    /** The geometric part of canAdd, as it was before the broad phase was added. */
+    private static boolean canAddFull(List<AbstractPart> parts, AbstractPart offered) {
+        VoxelShape currentShape = VoxelShapes.empty();
+        for (AbstractPart part : parts) {
+            currentShape = VoxelShapes.union(currentShape, part.getShape());
+        }
+        VoxelShape shapeOffered = offered.getShape();
+        for (AbstractPart part : parts) {
+            VoxelShape shapeOther = part.getShape();
+
+            // Basic overlap checking
+            if (!VoxelShapes.matchesAnywhere(shapeOther, shapeOffered, BooleanBiFunction.AND)) {
+                continue;
+            }
+
+            // Complete containment checking
+            if (!VoxelShapes.matchesAnywhere(currentShape, shapeOffered, BooleanBiFunction.ONLY_SECOND)) {
+                return false;
+            }
+
+            VoxelShape leftoverShape = shapeOther;
+            for (AbstractPart other : parts) {
+                if (other != part) {
+                    leftoverShape = VoxelShapes.combine(leftoverShape, other.getShape(), BooleanBiFunction.ONLY_FIRST);
+                    if (leftoverShape.isEmpty()) {
+                        return false;
+                    }
+                }
+            }
+            if (!VoxelShapes.matchesAnywhere(leftoverShape, shapeOffered, BooleanBiFunction.ONLY_FIRST)) {
+                return false;
+            }
+
+            // Check with each part for overlaps
+            if (!part.canOverlapWith(offered) && !offered.canOverlapWith(part)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return A random box, with every side on a quarter of a block. */
+    private static VoxelShape randomShape(Random rand) {
+        double[] min = new double[3];
+        double[] max = new double[3];
+        for (int axis = 0; axis < 3; axis++) {
+            int a = rand.nextInt(4);
+            int b = a + 1 + rand.nextInt(4 - a);
+            min[axis] = a / 4.0;
+            max[axis] = b / 4.0;
+        }
+        return VoxelShapes.cuboid(min[0], min[1], min[2], max[0], max[1], max[2]);
+    }
+}
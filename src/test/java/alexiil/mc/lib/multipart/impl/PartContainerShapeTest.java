@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+import alexiil.mc.lib.multipart.impl.TestContainers.ShapePart;
+
+public class PartContainerShapeTest {
+
+    private static final VoxelShape LEFT = VoxelShapes.cuboid(0, 0, 0, 0.5, 1, 1);
+    private static final VoxelShape BOTTOM = VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1);
+    private static final Vec3d RIGHT_POINT = new Vec3d(0.75, 0.25, 0.5);
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    /** Changes a part's shape while the container doesn't have any combined shapes cached. */
+    @Test
+    public void testShapeChangeWithoutCachedShapes() {
+        PartContainer container = TestContainers.create();
+        ShapePart part = TestContainers.addPart(container, LEFT);
+
+        // This clears the combined shapes, as the old shape can't be removed from them
+        part.shape = VoxelShapes.fullCube();
+        container.recalculateShape(part);
+        assertFalse(hasAnyCachedShapes(container));
+
+        // Builds the target index, but doesn't compute any of the combined shapes
+        assertSame(part, container.getPart(RIGHT_POINT));
+        assertFalse(hasAnyCachedShapes(container));
+        int version = container.getShapeVersion();
+
+        part.shape = LEFT;
+        container.recalculateShape(part);
+
+        assertNotEquals(version, container.getShapeVersion());
+        assertNull(container.getPart(RIGHT_POINT));
+        assertTrue(container.canAdd(TestContainers.createPart(container, BOTTOM), false));
+    }
+
+    /** Changes a part's shape back and forth, after the container's shapes and leftover shapes have been cached. */
+    @Test
+    public void testShapeChangeAfterCanAdd() {
+        PartContainer container = TestContainers.create();
+        ShapePart part = TestContainers.addPart(container, LEFT);
+
+        // Caches the leftover shape of the part
+        assertTrue(container.canAdd(TestContainers.createPart(container, BOTTOM), false));
+        assertNull(container.getPart(RIGHT_POINT));
+
+        // This clears the combined shapes, as the old shape can't be removed from them
+        part.shape = VoxelShapes.fullCube();
+        container.recalculateShape(part);
+        assertSame(part, container.getPart(RIGHT_POINT));
+        assertFalse(hasAnyCachedShapes(container));
+
+        part.shape = LEFT;
+        container.recalculateShape(part);
+        assertNull(container.getPart(RIGHT_POINT));
+        assertTrue(container.canAdd(TestContainers.createPart(container, BOTTOM), false));
+
+        part.shape = VoxelShapes.fullCube();
+        container.recalculateShape(part);
+        assertFalse(container.canAdd(TestContainers.createPart(container, BOTTOM), false));
+        assertSame(part, container.getPart(RIGHT_POINT));
+    }
+
+    private static boolean hasAnyCachedShapes(PartContainer container) {
+        return container.getSnapshot().hasComputedShapes();
+    }
+}
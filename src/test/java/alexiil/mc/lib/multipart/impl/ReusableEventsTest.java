@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+import alexiil.mc.lib.multipart.api.event.MultipartEvent;
+import alexiil.mc.lib.multipart.api.event.NeighbourStateUpdateEvent;
+import alexiil.mc.lib.multipart.api.event.NeighbourUpdateEvent;
+
+public class ReusableEventsTest {
+
+    private static final BlockPos OUTER = new BlockPos(1, 2, 3);
+    private static final BlockPos INNER = new BlockPos(4, 5, 6);
+
+    @Test
+    public void testReusedBetweenCalls() {
+        List<NeighbourUpdateEvent> seen = new ArrayList<>();
+        List<BlockPos> seenPos = new ArrayList<>();
+        ReusableEvents events = new ReusableEvents(event -> {
+            NeighbourUpdateEvent e = (NeighbourUpdateEvent) event;
+            seen.add(e);
+            seenPos.add(e.pos);
+        });
+
+        events.fireNeighbourUpdate(OUTER);
+        events.fireNeighbourUpdate(INNER);
+
+        assertSame(seen.get(0), seen.get(1));
+        assertEquals(List.of(OUTER, INNER), seenPos);
+        assertNull(seen.get(0).pos, "References should be cleared after dispatch");
+    }
+
+    @Test
+    public void testReentrantDispatch() {
+        List<NeighbourUpdateEvent> seen = new ArrayList<>();
+        List<BlockPos> seenPos = new ArrayList<>();
+        ReusableEvents[] holder = new ReusableEvents[1];
+        Consumer<MultipartEvent> fire = event -> {
+            NeighbourUpdateEvent e = (NeighbourUpdateEvent) event;
+            seen.add(e);
+            seenPos.add(e.pos);
+            if (e.pos == OUTER) {
+                holder[0].fireNeighbourUpdate(INNER);
+                // The inner call must not have overwritten the outer event
+                assertSame(OUTER, e.pos);
+                seenPos.add(e.pos);
+            }
+        };
+        ReusableEvents events = holder[0] = new ReusableEvents(fire);
+
+        events.fireNeighbourUpdate(OUTER);
+
+        assertEquals(List.of(OUTER, INNER, OUTER), seenPos);
+        assertNotSame(seen.get(0), seen.get(1));
+        assertNull(seen.get(0).pos);
+
+        // The outer instance is still the reused one, and is reset correctly afterwards
+        seen.clear();
+        seenPos.clear();
+        events.fireNeighbourUpdate(INNER);
+        events.fireNeighbourUpdate(OUTER);
+        assertEquals(List.of(INNER, OUTER, INNER, OUTER), seenPos);
+        assertSame(seen.get(0), seen.get(1));
+        assertNotSame(seen.get(1), seen.get(2));
+    }
+
+    @Test
+    public void testReentrantStateUpdate() {
+        List<NeighbourStateUpdateEvent> seen = new ArrayList<>();
+        ReusableEvents[] holder = new ReusableEvents[1];
+        ReusableEvents events = holder[0] = new ReusableEvents(event -> {
+            NeighbourStateUpdateEvent e = (NeighbourStateUpdateEvent) event;
+            seen.add(e);
+            if (e.direction == Direction.UP) {
+                holder[0].fireNeighbourStateUpdate(Direction.DOWN, INNER, null);
+                assertSame(Direction.UP, e.direction);
+                assertSame(OUTER, e.pos);
+            } else {
+                assertSame(Direction.DOWN, e.direction);
+                assertSame(INNER, e.pos);
+            }
+        });
+
+        events.fireNeighbourStateUpdate(Direction.UP, OUTER, null);
+        assertEquals(2, seen.size());
+        assertNotSame(seen.get(0), seen.get(1));
+
+        seen.clear();
+        events.fireNeighbourStateUpdate(Direction.UP, OUTER, null);
+        assertEquals(2, seen.size());
+        assertNull(seen.get(0).pos);
+    }
+}
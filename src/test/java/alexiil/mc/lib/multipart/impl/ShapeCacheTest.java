@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.function.BooleanBiFunction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+
+public class ShapeCacheTest {
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testInternEqualShapes() {
+        VoxelShape a = VoxelShapes.cuboid(0, 0, 0, 0.5, 1, 1);
+        VoxelShape b = VoxelShapes.cuboid(0, 0, 0, 0.5, 1, 1);
+        assertNotSame(a, b);
+
+        VoxelShape interned = ShapeCache.intern(a);
+        assertSame(interned, ShapeCache.intern(b));
+        assertSame(interned, ShapeCache.intern(a));
+        assertSame(interned, ShapeCache.intern(interned));
+    }
+
+    @Test
+    public void testInternSpecialShapes() {
+        assertSame(VoxelShapes.empty(), ShapeCache.intern(VoxelShapes.cuboid(0.5, 0.5, 0.5, 0.5, 0.5, 0.5)));
+        assertSame(VoxelShapes.fullCube(), ShapeCache.intern(VoxelShapes.fullCube()));
+    }
+
+    /** Shapes with the same bounding box but a different layout must never be merged, as they produce different
+     * outlines and collisions. */
+    @Test
+    public void testInternDifferentLayouts() {
+        VoxelShape left = VoxelShapes.cuboid(0, 0, 0, 0.5, 1, 1);
+        VoxelShape bottom = VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1);
+        VoxelShape corner = VoxelShapes.union(left, bottom);
+        assertEquals(VoxelShapes.fullCube().getBoundingBox(), corner.getBoundingBox());
+
+        assertNotSame(ShapeCache.intern(left), ShapeCache.intern(bottom));
+        assertNotSame(VoxelShapes.fullCube(), ShapeCache.intern(corner));
+    }
+
+    @Test
+    public void testUnion() {
+        VoxelShape left = ShapeCache.intern(VoxelShapes.cuboid(0, 0, 0, 0.5, 1, 1));
+        VoxelShape bottom = ShapeCache.intern(VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1));
+
+        VoxelShape union = ShapeCache.union(left, bottom);
+        assertSameShape(VoxelShapes.union(left, bottom), union);
+        assertSame(union, ShapeCache.union(left, bottom));
+        assertSame(union, ShapeCache.union(bottom, left));
+        assertSame(union, ShapeCache.intern(VoxelShapes.union(left, bottom)));
+
+        assertSame(left, ShapeCache.union(left, left));
+        assertSame(left, ShapeCache.union(left, VoxelShapes.empty()));
+        assertSame(left, ShapeCache.union(VoxelShapes.empty(), left));
+    }
+
+    private static void assertSameShape(VoxelShape expected, VoxelShape actual) {
+        assertFalse(VoxelShapes.matchesAnywhere(expected, actual, BooleanBiFunction.NOT_SAME));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import alexiil.mc.lib.net.NetByteBuf;
+
+import alexiil.mc.lib.multipart.api.misc.ConnectionIndependentWriter;
+
+public class SharedDataWriterTest {
+
+    /** Stands in for the block entity key that LNS writes before the payload, separately for each connection. */
+    private static final int CONTEXT = 0x12345678;
+
+    private int writeCount;
+
+    /** Mixes bit-packed booleans with whole bytes, so that the partial bytes are split up by other data. */
+    private final ConnectionIndependentWriter<int[]> writer = (values, buffer, ctx) -> {
+        writeCount++;
+        for (int value : values) {
+            buffer.writeBoolean((value & 1) != 0);
+            buffer.writeVarInt(value);
+            buffer.writeBoolean((value & 2) != 0);
+            buffer.writeBoolean(value < 0);
+        }
+    };
+
+    @Test
+    public void testTwoConnections() {
+        int[] values = { 0, 1, 2, 3, -7, 1000, 5 };
+        SharedDataWriter<int[]> shared = new SharedDataWriter<>(writer);
+
+        NetByteBuf first = NetByteBuf.buffer();
+        NetByteBuf second = NetByteBuf.buffer();
+        NetByteBuf direct = NetByteBuf.buffer();
+        try {
+            first.writeInt(CONTEXT);
+            shared.write(values, first, null);
+            second.writeInt(CONTEXT);
+            shared.write(values, second, null);
+            assertEquals(1, writeCount, "The real writer should only be called once");
+
+            direct.writeInt(CONTEXT);
+            writer.write(values, direct, null);
+
+            // Every connection receives exactly what the writer would have written directly
+            assertArrayEquals(bytes(direct), bytes(first));
+            assertArrayEquals(bytes(direct), bytes(second));
+
+            read(values, first);
+            read(values, second);
+        } finally {
+            first.release();
+            second.release();
+            direct.release();
+        }
+    }
+
+    private static void read(int[] expected, NetByteBuf buffer) {
+        assertEquals(CONTEXT, buffer.readInt());
+        for (int value : expected) {
+            assertEquals((value & 1) != 0, buffer.readBoolean());
+            assertEquals(value, buffer.readVarInt());
+            assertEquals((value & 2) != 0, buffer.readBoolean());
+            assertEquals(value < 0, buffer.readBoolean());
+        }
+        assertFalse(buffer.isReadable());
+    }
+
+    private static byte[] bytes(NetByteBuf buffer) {
+        byte[] array = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), array);
+        assertTrue(array.length > 4);
+        return array;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import alexiil.mc.lib.multipart.api.MultipartEventBus.ListenerInfo;
+import alexiil.mc.lib.multipart.api.event.MultipartEvent;
+import alexiil.mc.lib.multipart.api.event.PartListenerAdded;
+import alexiil.mc.lib.multipart.api.event.PartListenerRemoved;
+
+@SuppressWarnings("rawtypes")
+public class SimpleEventBusTest {
+
+    private static final Object KEY = new Object();
+    private static final Object OTHER_KEY = new Object();
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testDispatchByClass() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(KEY, MultipartEvent.class, e -> log.add("all"));
+        bus.addListener(KEY, BaseEvent.class, e -> log.add("base"));
+        bus.addListener(KEY, ChildEvent.class, e -> log.add("child"));
+        bus.addListener(KEY, OtherEvent.class, e -> log.add("other"));
+
+        log.clear();
+        assertTrue(bus.fireEvent(new ChildEvent()));
+        assertEquals(List.of("all", "base", "child"), log);
+
+        log.clear();
+        assertTrue(bus.fireEvent(new BaseEvent()));
+        assertEquals(List.of("all", "base"), log);
+
+        log.clear();
+        assertTrue(bus.fireEvent(new OtherEvent()));
+        assertEquals(List.of("all", "other"), log);
+
+        assertEquals(2, bus.getListeners(BaseEvent.class).size());
+        assertEquals(3, bus.getListeners(ChildEvent.class).size());
+        assertFalse(TestContainers.create().eventBus.fireEvent(new OtherEvent()));
+    }
+
+    /** Checks that the cached dispatch arrays are rebuilt whenever a listener is added or removed. */
+    @Test
+    public void testDispatchAfterChanges() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        ListenerInfo<BaseEvent> base = bus.addListener(KEY, BaseEvent.class, e -> log.add("base"));
+
+        assertTrue(bus.fireEvent(new ChildEvent()));
+        assertEquals(List.of("base"), log);
+
+        bus.addListener(OTHER_KEY, ChildEvent.class, e -> log.add("child"));
+        log.clear();
+        assertTrue(bus.fireEvent(new ChildEvent()));
+        assertEquals(List.of("base", "child"), log);
+
+        base.remove();
+        assertFalse(base.isPresent());
+        log.clear();
+        assertTrue(bus.fireEvent(new ChildEvent()));
+        assertFalse(bus.fireEvent(new BaseEvent()));
+        assertEquals(List.of("child"), log);
+        assertEquals(1, bus.getAllListeners().size());
+
+        bus.removeListeners(OTHER_KEY);
+        assertFalse(bus.fireEvent(new ChildEvent()));
+        assertFalse(bus.hasAnyListeners());
+    }
+
+    @Test
+    public void testHasAnyListenersFor() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        assertFalse(bus.hasAnyListenersFor(BaseEvent.class));
+
+        ListenerInfo<ChildEvent> child = bus.addListener(KEY, ChildEvent.class, e -> {});
+        assertTrue(bus.hasAnyListenersFor(ChildEvent.class));
+        assertFalse(bus.hasAnyListenersFor(BaseEvent.class));
+        assertFalse(bus.hasAnyListenersFor(OtherEvent.class));
+
+        ListenerInfo<BaseEvent> base1 = bus.addListener(KEY, BaseEvent.class, e -> {});
+        ListenerInfo<BaseEvent> base2 = bus.addListener(OTHER_KEY, BaseEvent.class, e -> {});
+        assertTrue(bus.hasAnyListenersFor(BaseEvent.class));
+
+        base1.remove();
+        assertTrue(bus.hasAnyListenersFor(BaseEvent.class));
+        base2.remove();
+        assertFalse(bus.hasAnyListenersFor(BaseEvent.class));
+        assertTrue(bus.hasAnyListenersFor(ChildEvent.class));
+
+        child.remove();
+        assertFalse(bus.hasAnyListenersFor(ChildEvent.class));
+
+        bus.addListener(KEY, MultipartEvent.class, e -> {});
+        assertTrue(bus.hasAnyListenersFor(BaseEvent.class));
+        assertTrue(bus.hasAnyListenersFor(ChildEvent.class));
+        assertTrue(bus.hasAnyListenersFor(OtherEvent.class));
+    }
+
+    /** Listeners added or removed while an event is being dispatched take effect immediately for later events, but
+     * the added and removed events are only fired once the outermost dispatch has finished. */
+    @Test
+    public void testChangesDuringDispatch() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(OTHER_KEY, PartListenerAdded.class, e -> log.add("added"));
+        bus.addListener(OTHER_KEY, PartListenerRemoved.class, e -> log.add("removed"));
+
+        boolean[] changed = { false };
+        List<ListenerInfo<BaseEvent>> toRemove = new ArrayList<>();
+        bus.addListener(KEY, BaseEvent.class, e -> {
+            log.add("a");
+            if (!changed[0]) {
+                changed[0] = true;
+                bus.addListener(KEY, BaseEvent.class, e2 -> log.add("b"));
+                toRemove.get(0).remove();
+            }
+        });
+        toRemove.add(bus.addListener(KEY, BaseEvent.class, e -> log.add("c")));
+
+        log.clear();
+        bus.fireEvent(new BaseEvent());
+        // The removed listener was already part of this dispatch, so it still receives the event
+        assertEquals(List.of("a", "c", "added", "removed"), log);
+
+        log.clear();
+        bus.fireEvent(new BaseEvent());
+        assertEquals(List.of("a", "b"), log);
+    }
+
+    /** Removing every listener for a key removes all of them before any of the removed events are fired, in reverse
+     * registration order. */
+    @Test
+    public void testRemoveListenersForKey() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        bus.addListener(KEY, BaseEvent.class, e -> {});
+        bus.addListener(KEY, OtherEvent.class, e -> {});
+        bus.addListener(KEY, ChildEvent.class, e -> {});
+
+        List<Class<?>> removed = new ArrayList<>();
+        bus.addListener(OTHER_KEY, PartListenerRemoved.class, e -> {
+            assertFalse(bus.hasAnyListenersForKey(KEY));
+            removed.add(((PartListenerRemoved<?>) e).eventClass);
+        });
+
+        assertTrue(bus.hasAnyListenersForKey(KEY));
+        assertEquals(3, bus.getListenersForKey(KEY).size());
+        bus.removeListeners(KEY);
+
+        assertEquals(List.of(ChildEvent.class, OtherEvent.class, BaseEvent.class), removed);
+        assertTrue(bus.getListenersForKey(KEY).isEmpty());
+        assertFalse(bus.hasAnyListenersFor(BaseEvent.class));
+        assertTrue(bus.hasAnyListenersForKey(OTHER_KEY));
+    }
+
+    /** Listeners added inside a mutation batch receive events straight away, but the added events are delayed until
+     * the batch ends. */
+    @Test
+    public void testMutationBatch() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(OTHER_KEY, PartListenerAdded.class, e -> log.add("added"));
+
+        log.clear();
+        bus.startMutationBatch();
+        bus.addListener(KEY, BaseEvent.class, e -> log.add("base"));
+        bus.addListener(KEY, OtherEvent.class, e -> log.add("other"));
+        assertTrue(bus.hasAnyListenersFor(BaseEvent.class));
+        bus.fireEvent(new BaseEvent());
+        assertEquals(List.of("base"), log);
+
+        bus.endMutationBatch();
+        assertEquals(List.of("base", "added", "added"), log);
+    }
+
+    static class BaseEvent extends MultipartEvent {}
+
+    static final class ChildEvent extends BaseEvent {}
+
+    static final class OtherEvent extends MultipartEvent {}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import alexiil.mc.lib.multipart.api.property.MultipartProperty;
+import alexiil.mc.lib.multipart.api.property.MultipartProperty.IntegerBoundProperty;
+import alexiil.mc.lib.multipart.api.property.MultipartProperty.PreferedBooleanProperty;
+
+/** Checks that the incremental property containers always agree with {@link MultipartProperty#combine(List)}. */
+public class SimplePropertyContainerTest {
+
+    private static final int KEY_COUNT = 6;
+    private static final int STEPS = 2000;
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testIntBound() {
+        checkInt(new IntegerBoundProperty("test_int", 0, 15, 0), -3, 20);
+        checkInt(new IntegerBoundProperty("test_negative_int", -4, 11, 2), -8, 14);
+        checkInt(new IntegerBoundProperty("test_single_int", 5, 5, 5), 0, 10);
+    }
+
+    /** Properties that aren't stored in buckets. These only use values between min and max, as otherwise a single
+     * value isn't passed through {@link IntegerBoundProperty#combine(List)}. */
+    @Test
+    public void testIntGeneric() {
+        checkInt(new IntegerBoundProperty("test_wide_int", 0, 1000, 0), 0, 1000);
+        checkInt(new IntegerBoundProperty("test_full_int", Integer.MIN_VALUE, Integer.MAX_VALUE, 0), 0, 1000);
+        checkInt(new IntegerBoundProperty("test_custom_int", 0, 15, 0) {
+            @Override
+            public Integer combine(List<Integer> values) {
+                return super.combine(values);
+            }
+        }, 0, 15);
+    }
+
+    @Test
+    public void testPreferedBoolean() {
+        checkBoolean(new PreferedBooleanProperty("test_false", false));
+        checkBoolean(new PreferedBooleanProperty("test_true", true));
+    }
+
+    private static void checkInt(IntegerBoundProperty property, int minValue, int maxValue) {
+        SimplePropertyContainer properties = TestContainers.create().properties;
+        Object[] keys = createKeys();
+        Map<Object, Integer> values = new IdentityHashMap<>();
+        int[] lastChange = { 0, 0, 0 };
+        properties.addIntChangeListener(new Object(), property, (oldValue, newValue) -> {
+            lastChange[0]++;
+            lastChange[1] = oldValue;
+            lastChange[2] = newValue;
+        });
+
+        Random rand = new Random(property.name.hashCode());
+        for (int step = 0; step < STEPS; step++) {
+            Object key = keys[rand.nextInt(KEY_COUNT)];
+            Integer before = properties.getValue(property);
+            int changes = lastChange[0];
+
+            if (rand.nextInt(8) == 0) {
+                properties.clearValue(key, property);
+                values.remove(key);
+            } else {
+                int value = minValue + rand.nextInt(maxValue - minValue + 1);
+                properties.setValue(key, property, value);
+                values.put(key, value);
+            }
+
+            Integer after = properties.getValue(property);
+            assertEquals(combine(property, values), after, "Step " + step);
+            if (before.equals(after)) {
+                assertEquals(changes, lastChange[0], "Step " + step);
+            } else {
+                assertEquals(changes + 1, lastChange[0], "Step " + step);
+                assertEquals(before.intValue(), lastChange[1], "Step " + step);
+                assertEquals(after.intValue(), lastChange[2], "Step " + step);
+            }
+        }
+
+        properties.clearValues(keys[0]);
+        values.remove(keys[0]);
+        assertEquals(combine(property, values), properties.getValue(property));
+    }
+
+    private static void checkBoolean(PreferedBooleanProperty property) {
+        SimplePropertyContainer properties = TestContainers.create().properties;
+        Object[] keys = createKeys();
+        Map<Object, Boolean> values = new IdentityHashMap<>();
+        int[] changeCount = { 0 };
+        boolean[] lastValue = { property.defaultValue };
+        properties.addBooleanChangeListener(new Object(), property, newValue -> {
+            changeCount[0]++;
+            lastValue[0] = newValue;
+        });
+
+        Random rand = new Random(property.name.hashCode());
+        for (int step = 0; step < STEPS; step++) {
+            Object key = keys[rand.nextInt(KEY_COUNT)];
+            Boolean before = properties.getValue(property);
+            int changes = changeCount[0];
+
+            if (rand.nextInt(8) == 0) {
+                properties.clearValue(key, property);
+                values.remove(key);
+            } else {
+                boolean value = rand.nextBoolean();
+                properties.setValue(key, property, value);
+                values.put(key, value);
+            }
+
+            Boolean after = properties.getValue(property);
+            assertEquals(combine(property, values), after, "Step " + step);
+            assertEquals(before.equals(after) ? changes : changes + 1, changeCount[0], "Step " + step);
+            assertEquals(after, lastValue[0], "Step " + step);
+        }
+    }
+
+    /** The value that {@link SimplePropertyContainer} should return, given every key's value. Keys with the default
+     * value are treated as not setting it at all. */
+    private static <T> T combine(MultipartProperty<T> property, Map<Object, T> values) {
+        List<T> list = new ArrayList<>();
+        for (T value : values.values()) {
+            if (!value.equals(property.defaultValue)) {
+                list.add(value);
+            }
+        }
+        if (list.isEmpty()) {
+            return property.defaultValue;
+        }
+        return property.combine(list);
+    }
+
+    private static Object[] createKeys() {
+        Object[] keys = new Object[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = new Object();
+        }
+        return keys;
+    }
+}
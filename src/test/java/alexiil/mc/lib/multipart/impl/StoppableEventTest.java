@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.math.DirectionTransformation;
+
+import alexiil.mc.lib.multipart.api.event.MultipartEvent;
+import alexiil.mc.lib.multipart.api.event.PartOfferedEvent;
+import alexiil.mc.lib.multipart.api.event.PartTransformCheckEvent;
+
+public class StoppableEventTest {
+
+    private static final Object KEY = new Object();
+
+    @BeforeAll
+    public static void bootstrap() {
+        TestContainers.bootstrap();
+    }
+
+    @Test
+    public void testOfferedEventStopsOnceDisallowed() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("first"));
+        bus.addListener(KEY, PartOfferedEvent.class, e -> {
+            log.add("disallow");
+            e.disallow();
+        });
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("after"));
+        bus.addListener(KEY, MultipartEvent.class, e -> log.add("any"));
+
+        log.clear();
+        PartOfferedEvent event = new PartOfferedEvent(null);
+        assertTrue(bus.fireEvent(event));
+        assertFalse(event.isAllowed());
+        assertEquals(List.of("first", "disallow"), log);
+    }
+
+    @Test
+    public void testOfferedEventReachesEveryListenerIfAllowed() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("first"));
+        bus.addListener(KEY, MultipartEvent.class, e -> log.add("any"));
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("last"));
+
+        log.clear();
+        PartOfferedEvent event = new PartOfferedEvent(null);
+        bus.fireEvent(event);
+        assertTrue(event.isAllowed());
+        assertEquals(List.of("first", "any", "last"), log);
+    }
+
+    @Test
+    public void testTransformCheckStopsOnceInvalid() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(KEY, PartTransformCheckEvent.class, e -> {
+            log.add("rotation");
+            e.allowOnlyRotationOrMirror();
+        });
+        bus.addListener(KEY, MultipartEvent.class, e -> {
+            if (e instanceof PartTransformCheckEvent check) {
+                log.add("invalid");
+                check.markInvalid();
+            }
+        });
+        bus.addListener(KEY, PartTransformCheckEvent.class, e -> log.add("after"));
+
+        log.clear();
+        PartTransformCheckEvent event = new PartTransformCheckEvent(DirectionTransformation.IDENTITY);
+        bus.fireEvent(event);
+        assertTrue(event.isInvalid());
+        assertEquals(List.of("rotation", "invalid"), log);
+    }
+
+    /** An event that is already stopped is still delivered to the first listener, as the check only happens after
+     * each listener. */
+    @Test
+    public void testAlreadyStoppedEvent() {
+        SimpleEventBus bus = TestContainers.create().eventBus;
+        List<String> log = new ArrayList<>();
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("first"));
+        bus.addListener(KEY, PartOfferedEvent.class, e -> log.add("second"));
+
+        log.clear();
+        PartOfferedEvent event = new PartOfferedEvent(null);
+        event.disallow();
+        bus.fireEvent(event);
+        assertEquals(List.of("first"), log);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 AlexIIL
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package alexiil.mc.lib.multipart.impl;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.shape.VoxelShape;
+
+import alexiil.mc.lib.multipart.api.AbstractPart;
+import alexiil.mc.lib.multipart.api.MultipartHolder;
+import alexiil.mc.lib.multipart.api.PartDefinition;
+import alexiil.mc.lib.multipart.api.render.PartModelKey;
+
+/** Creates {@link PartContainer}s (which aren't in any world) and simple parts for tests. */
+final class TestContainers {
+
+    static final PartDefinition DEFINITION = new PartDefinition(
+        new Identifier("libmultipart_test", "shape"), (def, holder, nbt) -> {
+            throw new UnsupportedOperationException();
+        }, (def, holder, buffer, ctx) -> {
+            throw new UnsupportedOperationException();
+        }
+    );
+
+    private static boolean bootstrapped;
+
+    private TestContainers() {}
+
+    static synchronized void bootstrap() {
+        if (bootstrapped) {
+            return;
+        }
+        bootstrapped = true;
+        SharedConstants.createGameVersion();
+        // Our block has to be registered before the registries are frozen
+        Registry.register(Registries.BLOCK, LibMultiPart.id("container"), LibMultiPart.BLOCK);
+        Registry.register(Registries.BLOCK_ENTITY_TYPE, LibMultiPart.id("container"), LibMultiPart.BLOCK_ENTITY);
+        Bootstrap.initialize();
+    }
+
+    static PartContainer create() {
+        bootstrap();
+        return new MultipartBlockEntity(BlockPos.ORIGIN, LibMultiPart.BLOCK.getDefaultState()).getContainer();
+    }
+
+    /** Creates a part, without adding it to the container. */
+    static PartHolder createPart(PartContainer container, VoxelShape shape) {
+        return new PartHolder(container, holder -> new ShapePart(holder, shape));
+    }
+
+    /** Adds a new part directly to the container's list, as {@link PartContainer#addPartInternal(PartHolder)} needs a
+     * world. */
+    static ShapePart addPart(PartContainer container, VoxelShape shape) {
+        PartHolder holder = createPart(container, shape);
+        holder.uniqueId = container.nextId++;
+        container.parts.add(holder);
+        container.partsByUid.put(holder.uniqueId, holder);
+        container.recalculateShape();
+        return (ShapePart) holder.part;
+    }
+
+    /** A part with a shape that can be changed, and which can overlap with any other part unless {@link #canOverlap}
+     * is cleared. */
+    static final class ShapePart extends AbstractPart {
+        VoxelShape shape;
+        boolean canOverlap = true;
+
+        ShapePart(MultipartHolder holder, VoxelShape shape) {
+            super(DEFINITION, holder);
+            this.shape = shape;
+        }
+
+        @Override
+        public VoxelShape getShape() {
+            return shape;
+        }
+
+        @Override
+        public boolean canOverlapWith(AbstractPart other) {
+            return canOverlap;
+        }
+
+        @Override
+        public PartModelKey getModelKey() {
+            return null;
+        }
+    }
+}